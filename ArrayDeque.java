@@ -1,3 +1,4 @@
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 
 /**
@@ -15,17 +16,35 @@ public class ArrayDeque<T> {
      */
     public static final int INITIAL_CAPACITY = 11;
 
-    // Do not add new instance variables.
     private T[] backingArray;
     private int front;
     private int back;
     private int size;
+    private final boolean shrinkEnabled;
 
     /**
      * Constructs a new ArrayDeque with an initial capacity of
-     * the {@code INITIAL_CAPACITY} constant above.
+     * the {@code INITIAL_CAPACITY} constant above. The backing array never
+     * shrinks on its own.
      */
     public ArrayDeque() {
+        this(false);
+    }
+
+    /**
+     * Constructs a new ArrayDeque with an initial capacity of
+     * the {@code INITIAL_CAPACITY} constant above.
+     *
+     * If shrinkEnabled is true, a remove that leaves the deque less than a
+     * quarter full halves the backing array, but never below
+     * {@code INITIAL_CAPACITY}. The deque is then less than half full, so it
+     * has to double in size before it grows again, and alternating adds and
+     * removes around the threshold cannot make it resize back and forth.
+     *
+     * @param shrinkEnabled whether removes may shrink the backing array
+     */
+    public ArrayDeque(boolean shrinkEnabled) {
+        this.shrinkEnabled = shrinkEnabled;
         backingArray =  (T[]) new Object[INITIAL_CAPACITY];
         front = 0;
         back = 0;
@@ -54,23 +73,14 @@ public class ArrayDeque<T> {
         }
 
         if (size == backingArray.length) {
-            T[] newBackingArray = (T[]) new Object[backingArray.length * 2];
-            newBackingArray[0] = data;
-            for (int i = 0; i < size; i++) {
-                newBackingArray[i + 1] = backingArray[mod(front + i,
-                        backingArray.length)];
-            }
-            backingArray = newBackingArray;
-            front = 0;
-            back = size + 1;
+            resize(backingArray.length * 2, 1);
+        }
+        if (front == 0) {
+            front = backingArray.length - 1;
         } else {
-            if (front == 0) {
-                front = backingArray.length - 1;
-            } else {
-                front--;
-            }
-            backingArray[front] = data;
+            front--;
         }
+        backingArray[front] = data;
         size++;
     }
 
@@ -94,22 +104,13 @@ public class ArrayDeque<T> {
                     + "ArrayDeque");
         }
         if (size == backingArray.length) {
-            T[] newBackingArray = (T[]) new Object[backingArray.length * 2];
-            for (int i = 0; i < size; i++) {
-                newBackingArray[i] = backingArray[mod(front + i,
-                        backingArray.length)];
-            }
-            newBackingArray[size] = data;
-            backingArray = newBackingArray;
-            front = 0;
-            back = size + 1;
+            resize(backingArray.length * 2, 0);
+        }
+        backingArray[back] = data;
+        if (back == backingArray.length - 1) {
+            back = 0;
         } else {
-            backingArray[back] = data;
-            if (back == backingArray.length - 1) {
-                back = 0;
-            } else {
-                back++;
-            }
+            back++;
         }
         size++;
     }
@@ -117,7 +118,8 @@ public class ArrayDeque<T> {
     /**
      * Removes the data at the front of the deque.
      *
-     * Do not shrink the backing array.
+     * The backing array is only shrunk if shrinking was enabled in the
+     * constructor.
      *
      * If the deque becomes empty as a result of this call, you should
      * explicitly reset front and back to the beginning of the array.
@@ -125,7 +127,7 @@ public class ArrayDeque<T> {
      * You should replace any spots that you remove from with null. Failure to
      * do so will result in a major loss of points.
      *
-     * This method must run in O(1) time.
+     * This method must run in amortized O(1) time.
      *
      * @return the data formerly at the front of the deque
      * @throws java.util.NoSuchElementException if the deque is empty
@@ -147,13 +149,15 @@ public class ArrayDeque<T> {
             front = 0;
             back = 0;
         }
+        shrinkIfSparse();
         return removedData;
     }
 
     /**
      * Removes the data at the back of the deque.
      *
-     * Do not shrink the backing array.
+     * The backing array is only shrunk if shrinking was enabled in the
+     * constructor.
      *
      * If the deque becomes empty as a result of this call, you should
      * explicitly reset front and back to the beginning of the array.
@@ -161,7 +165,7 @@ public class ArrayDeque<T> {
      * You should replace any spots that you remove from with null. Failure to
      * do so will result in a major loss of points.
      *
-     * This method must run in O(1) time.
+     * This method must run in amortized O(1) time.
      *
      * @return the data formerly at the back of the deque
      * @throws java.util.NoSuchElementException if the deque is empty
@@ -183,9 +187,122 @@ public class ArrayDeque<T> {
             front = 0;
             back = 0;
         }
+        shrinkIfSparse();
         return removedData;
     }
 
+    /**
+     * Adds every element of the array to the back of the deque, in order.
+     *
+     * The backing array is grown at most once, to double its length or to
+     * exactly fit the elements if that is more, and the elements are copied
+     * in with at most two bulk copies. Nothing is added if any element is
+     * null.
+     *
+     * @param data the elements to add
+     * @throws java.lang.IllegalArgumentException if data or any element of
+     * it is null
+     */
+    public void addAllLast(T[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot add a null array to"
+                    + " ArrayDeque");
+        }
+        for (T element : data) {
+            if (element == null) {
+                throw new IllegalArgumentException("Cannot add null data to"
+                        + " ArrayDeque");
+            }
+        }
+        if (size + data.length > backingArray.length) {
+            resize(Math.max(backingArray.length * 2, size + data.length), 0);
+        }
+        int firstRun = Math.min(data.length, backingArray.length - back);
+        System.arraycopy(data, 0, backingArray, back, firstRun);
+        System.arraycopy(data, firstRun, backingArray, 0,
+                data.length - firstRun);
+        back = mod(back + data.length, backingArray.length);
+        size += data.length;
+    }
+
+    /**
+     * Removes elements from the front of the deque into the array, in
+     * order, until either the deque is empty or the array is full.
+     *
+     * The elements are copied out with at most two bulk copies.
+     *
+     * @param destination the array to fill from index 0
+     * @return the number of elements removed
+     * @throws java.lang.IllegalArgumentException if destination is null
+     */
+    public int drainTo(T[] destination) {
+        if (destination == null) {
+            throw new IllegalArgumentException("Cannot drain into a null"
+                    + " array.");
+        }
+        int count = Math.min(size, destination.length);
+        int firstRun = Math.min(count, backingArray.length - front);
+        System.arraycopy(backingArray, front, destination, 0, firstRun);
+        Arrays.fill(backingArray, front, front + firstRun, null);
+        System.arraycopy(backingArray, 0, destination, firstRun,
+                count - firstRun);
+        Arrays.fill(backingArray, 0, count - firstRun, null);
+        front = mod(front + count, backingArray.length);
+        size -= count;
+        if (size == 0) {
+            front = 0;
+            back = 0;
+        }
+        shrinkIfSparse();
+        return count;
+    }
+
+    /**
+     * Shrinks the backing array to exactly the size of the deque, or to a
+     * length of 1 if the deque is empty, releasing the unused capacity.
+     */
+    public void trimToSize() {
+        int length = Math.max(size, 1);
+        if (length < backingArray.length) {
+            resize(length, 0);
+        }
+    }
+
+    /**
+     * Private helper method to halve the backing array if shrinking is
+     * enabled and the deque is less than a quarter full, without going
+     * below {@code INITIAL_CAPACITY}.
+     */
+    private void shrinkIfSparse() {
+        if (shrinkEnabled && size < backingArray.length / 4
+                && backingArray.length / 2 >= INITIAL_CAPACITY) {
+            resize(backingArray.length / 2, 0);
+        }
+    }
+
+    /**
+     * Private helper method to move the elements into a new backing array
+     * of the given length, starting at index offset. The run from front to
+     * the end of the old array and the wrapped run from its start are
+     * copied with one bulk copy each. Growing for addFirst uses an offset
+     * of 1, so the new data can go at index 0.
+     *
+     * @param length the length of the new backing array, at least
+     * size + offset
+     * @param offset the index the front of the deque moves to
+     */
+    private void resize(int length, int offset) {
+        T[] newBackingArray = (T[]) new Object[length];
+        int firstRun = Math.min(size, backingArray.length - front);
+        System.arraycopy(backingArray, front, newBackingArray, offset,
+                firstRun);
+        System.arraycopy(backingArray, 0, newBackingArray, offset + firstRun,
+                size - firstRun);
+        backingArray = newBackingArray;
+        front = offset;
+        back = mod(offset + size, length);
+    }
+
     /**
      * Returns the smallest non-negative remainder when dividing {@code index}
      * by {@code modulo}. So, for example, if modulo is 5, then this method will
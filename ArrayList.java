@@ -1,3 +1,13 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Your implementation of an ArrayList.
  *
@@ -6,23 +16,53 @@
  * @GTID 903328574
  * @version 1.0
  */
-public class ArrayList<T> {
+public class ArrayList<T> implements Iterable<T> {
 
-    // Do not add new instance variables.
     private T[] backingArray;
     private int size;
+    private final double growthFactor;
+    private int modCount;
 
     /**
      * The initial capacity of the array list.
      */
     public static final int INITIAL_CAPACITY = 13;
 
+    /**
+     * The factor the backing array grows by when it is full, unless a
+     * different one is passed to the constructor.
+     */
+    public static final double DEFAULT_GROWTH_FACTOR = 2.0;
+
+    /**
+     * The largest backing array length the list will allocate.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
     /**
      * Constructs a new ArrayList.
      *
      * You may add statements to this method.
      */
     public ArrayList() {
+        this(DEFAULT_GROWTH_FACTOR);
+    }
+
+    /**
+     * Constructs a new ArrayList whose backing array grows by the given
+     * factor when it is full. A factor of 1.5 wastes less memory after a
+     * resize than the default of 2.0, at the cost of resizing more often.
+     *
+     * @param growthFactor the factor to multiply the capacity by on resize
+     * @throws java.lang.IllegalArgumentException if growthFactor is not
+     * greater than 1
+     */
+    public ArrayList(double growthFactor) {
+        if (!(growthFactor > 1.0)) {
+            throw new IllegalArgumentException("Growth factor must be greater"
+                    + " than 1.");
+        }
+        this.growthFactor = growthFactor;
         backingArray = (T[]) new Object[INITIAL_CAPACITY];
         size = 0;
     }
@@ -51,28 +91,7 @@ public class ArrayList<T> {
                     + "data structure.");
         }
 
-        T[] newBackingArray = (T[]) new Object[backingArray.length];
-
-        if (backingArray.length == size) {
-            newBackingArray = (T[]) new Object[backingArray.length * 2];
-        } else if (index == size) {
-            backingArray[size] = data;
-            size += 1;
-            return;
-        }
-
-        for (int i = 0; i < size + 1; i++) {
-            if (i < index) {
-                newBackingArray[i] = backingArray[i];
-            } else if (i == index) {
-                newBackingArray[i] = data;
-            } else {
-                newBackingArray[i] = backingArray[i - 1];
-            }
-        }
-
-        backingArray = newBackingArray;
-        size += 1;
+        insert(index, data);
     }
 
     /**
@@ -91,20 +110,7 @@ public class ArrayList<T> {
                     + "data structure.");
         }
 
-        T[] newBackingArray = (T[]) new Object[backingArray.length];
-
-        if (backingArray.length == size) {
-            newBackingArray = (T[]) new Object[backingArray.length * 2];
-        }
-
-        newBackingArray[0] = data;
-
-        for (int i = 1; i <= size; i++) {
-            newBackingArray[i] = backingArray[i - 1];
-        }
-
-        backingArray = newBackingArray;
-        size += 1;
+        insert(0, data);
     }
 
     /**
@@ -121,16 +127,160 @@ public class ArrayList<T> {
                     + "data structure.");
         }
 
+        insert(size, data);
+    }
+
+    /**
+     * Private helper method to insert data at a valid index.
+     *
+     * If there is spare capacity, the elements from index onwards are
+     * shifted right in place with one bulk copy. Only a full backing array
+     * is replaced, by one grown by the growth factor, with the elements
+     * before and after index copied into place around the gap.
+     *
+     * @param index The index where the new element goes, 0 to size.
+     * @param data The non-null data to insert.
+     */
+    private void insert(int index, T data) {
         if (backingArray.length == size) {
-            T[] newBackingArray = (T[]) new Object[backingArray.length * 2];
-            for (int i = 0; i < size; i++) {
-                newBackingArray[i] = backingArray[i];
-            }
+            T[] newBackingArray = (T[]) new Object[newCapacity(size + 1)];
+            System.arraycopy(backingArray, 0, newBackingArray, 0, index);
+            System.arraycopy(backingArray, index, newBackingArray, index + 1,
+                    size - index);
             backingArray = newBackingArray;
+        } else if (index < size) {
+            System.arraycopy(backingArray, index, backingArray, index + 1,
+                    size - index);
         }
 
-        backingArray[size] = data;
+        backingArray[index] = data;
         size += 1;
+        modCount++;
+    }
+
+    /**
+     * Adds every element of the array to the back of the list, in order.
+     *
+     * The backing array is grown at most once and the elements are copied
+     * in with one bulk copy. Nothing is added if any element is null.
+     *
+     * @param data the elements to add
+     * @throws java.lang.IllegalArgumentException if data or any element of
+     * it is null
+     */
+    public void addAll(T[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot add a null array to"
+                    + " data structure.");
+        }
+        for (T element : data) {
+            if (element == null) {
+                throw new IllegalArgumentException("Cannot insert null data"
+                        + " into data structure.");
+            }
+        }
+        ensureCapacity(size + data.length);
+        System.arraycopy(data, 0, backingArray, size, data.length);
+        size += data.length;
+        modCount++;
+    }
+
+    /**
+     * Adds every element of the collection to the back of the list, in
+     * iteration order.
+     *
+     * The backing array is grown at most once and the elements are copied
+     * in with one bulk copy. Nothing is added if any element is null.
+     *
+     * @param data the elements to add
+     * @throws java.lang.IllegalArgumentException if data or any element of
+     * it is null
+     */
+    public void addAll(Collection<? extends T> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot add a null collection"
+                    + " to data structure.");
+        }
+        addAll((T[]) data.toArray());
+    }
+
+    /**
+     * Removes the elements from index {@code from}, inclusive, to index
+     * {@code to}, exclusive, shifting the rest of the list left with one
+     * bulk copy.
+     *
+     * Must be O(n).
+     *
+     * @param from the index of the first element to remove
+     * @param to the index after the last element to remove
+     * @throws java.lang.IndexOutOfBoundsException if from < 0, to > size or
+     * from > to
+     */
+    public void removeRange(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range for removing has to be"
+                    + " within 0 and the size of the ArrayList");
+        }
+        System.arraycopy(backingArray, to, backingArray, from, size - to);
+        int newSize = size - (to - from);
+        Arrays.fill(backingArray, newSize, size, null);
+        size = newSize;
+        modCount++;
+    }
+
+    /**
+     * Grows the backing array, if needed, so it can hold at least
+     * minCapacity elements without another resize.
+     *
+     * @param minCapacity the number of elements the list should hold
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > backingArray.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the backing array to exactly the size of the list, releasing
+     * the unused capacity.
+     */
+    public void trimToSize() {
+        if (size < backingArray.length) {
+            backingArray = Arrays.copyOf(backingArray, size);
+            modCount++;
+        }
+    }
+
+    /**
+     * Private helper method to replace the backing array by one that holds
+     * at least minCapacity elements, copying the list over in one bulk
+     * copy.
+     *
+     * @param minCapacity the number of elements the list should hold
+     */
+    private void grow(int minCapacity) {
+        backingArray = Arrays.copyOf(backingArray, newCapacity(minCapacity));
+        modCount++;
+    }
+
+    /**
+     * Private helper method to compute the length of the next backing array,
+     * which is the current length times the growth factor, but at least one
+     * more than the current length and at least minCapacity.
+     *
+     * @param minCapacity the number of elements the list should hold
+     * @return the length of the new backing array
+     * @throws java.lang.OutOfMemoryError if minCapacity is larger than the
+     * largest supported array length
+     */
+    private int newCapacity(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("ArrayList cannot hold more than "
+                    + MAX_CAPACITY + " elements.");
+        }
+        long grown = (long) (backingArray.length * growthFactor);
+        grown = Math.max(grown, backingArray.length + 1L);
+        return (int) Math.min(Math.max(grown, minCapacity), MAX_CAPACITY);
     }
 
     /**
@@ -165,6 +315,7 @@ public class ArrayList<T> {
         backingArray[size - 1] = null;
 
         size -= 1;
+        modCount++;
         return removedData;
     }
 
@@ -189,6 +340,7 @@ public class ArrayList<T> {
         }
 
         size -= 1;
+        modCount++;
         return removedData;
     }
 
@@ -209,6 +361,7 @@ public class ArrayList<T> {
         backingArray[size - 1] = null;
 
         size -= 1;
+        modCount++;
         return removedData;
     }
 
@@ -250,6 +403,48 @@ public class ArrayList<T> {
     public void clear() {
         backingArray = (T[]) new Object[INITIAL_CAPACITY];
         size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns a fail-fast iterator over the list, from index 0 to the back.
+     *
+     * Any change to the list that is not made through the iterator's own
+     * {@code remove} makes the next call on the iterator throw a
+     * ConcurrentModificationException.
+     *
+     * @return an iterator over the elements of the list
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new ArrayListIterator();
+    }
+
+    /**
+     * Returns a fail-fast spliterator over the list that reads the backing
+     * array directly. It reports ORDERED, SIZED, SUBSIZED and NONNULL, and
+     * splits in half by index, so parallel streams can divide the list
+     * without copying it.
+     *
+     * The spliterator binds to the list on its first traversal, split or
+     * size estimate, and throws a ConcurrentModificationException after
+     * traversal if the list was changed since then.
+     *
+     * @return a spliterator over the elements of the list
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new ArrayListSpliterator(0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential stream over the list. Call {@code parallel()}
+     * on it to process the list with the common fork-join pool.
+     *
+     * @return a stream over the elements of the list
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
     }
 
     /**
@@ -275,4 +470,148 @@ public class ArrayList<T> {
         // DO NOT MODIFY THIS METHOD!
         return backingArray;
     }
+
+    /**
+     * Fail-fast iterator that walks the backing array by index.
+     */
+    private class ArrayListIterator implements Iterator<T> {
+
+        private int cursor;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public T next() {
+            checkForComodification();
+            if (cursor >= size) {
+                throw new NoSuchElementException("No more elements in the"
+                        + " ArrayList.");
+            }
+            lastReturned = cursor;
+            cursor++;
+            return backingArray[lastReturned];
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == -1) {
+                throw new IllegalStateException("next has not been called"
+                        + " since the last remove.");
+            }
+            checkForComodification();
+            removeAtIndex(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Throws if the list was changed other than through this iterator.
+         */
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Fail-fast spliterator over a range of the backing array. A fence of
+     * -1 means the spliterator has not bound to the list yet and covers it
+     * up to its size at the time of binding.
+     */
+    private class ArrayListSpliterator implements Spliterator<T> {
+
+        private int index;
+        private int fence;
+        private int expectedModCount;
+
+        /**
+         * Creates a spliterator over the given range.
+         *
+         * @param origin the first index covered
+         * @param fence one past the last index covered, or -1 to bind late
+         * @param expectedModCount the modification count at binding
+         */
+        ArrayListSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /**
+         * Binds to the list on first use and returns the fence.
+         *
+         * @return one past the last index covered
+         */
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new ArrayListSpliterator(lo, mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            T element = backingArray[index];
+            index++;
+            action.accept(element);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            int hi = getFence();
+            T[] array = backingArray;
+            for (int i = index; i < hi; i++) {
+                action.accept(array[i]);
+            }
+            index = hi;
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                    | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
 }
@@ -0,0 +1,325 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a bounded cache on a linear probing {@code MapEntry}
+ * table, using CLOCK eviction.
+ *
+ * The table is sized once for {@code maxEntries} at {@code HashMap}'s max
+ * load factor and never resizes. Each slot has a reference bit in an array
+ * parallel to the table that {@code get} sets on a hit, so lookups do not
+ * allocate. When a new key arrives at a full cache, a clock hand sweeps the
+ * table, clearing set reference bits, and evicts the first entry whose bit
+ * is already clear. Entries are removed by shifting the rest of their
+ * cluster back rather than leaving removed entries, so a long-lived cache
+ * never fills with them.
+ *
+ * Hit, miss and eviction counters are kept so the cache can be sized.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class ClockCache<K, V> {
+
+    public static final double MAX_LOAD_FACTOR = 0.67;
+
+    private final int maxEntries;
+    private MapEntry<K, V>[] table;
+    private boolean[] referenced;
+    private int size;
+    private int hand;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates an empty cache that holds at most {@code maxEntries} entries.
+     *
+     * @param maxEntries the maximum number of entries
+     * @throws IllegalArgumentException if maxEntries is not positive
+     */
+    public ClockCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be"
+                    + " positive.");
+        }
+        this.maxEntries = maxEntries;
+        int length = (int) Math.ceil(maxEntries / MAX_LOAD_FACTOR);
+        table = new MapEntry[Math.max(length, maxEntries + 1)];
+        referenced = new boolean[table.length];
+    }
+
+    /**
+     * Adds the given key-value pair to the cache. If the key is already
+     * cached, its value is replaced and it is marked as referenced. If the
+     * key is new and the cache is full, one entry is evicted first.
+     *
+     * @param key key to add into the cache
+     * @param value value to add into the cache
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the cache. If it was in the
+     * cache, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " key into cache.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " value into cache.");
+        }
+        int index = findIndex(key);
+        if (index != -1) {
+            V oldValue = table[index].getValue();
+            table[index].setValue(value);
+            referenced[index] = true;
+            return oldValue;
+        }
+        if (size == maxEntries) {
+            evict();
+        }
+        index = compressHash(key.hashCode(), table.length);
+        while (table[index] != null) {
+            index++;
+            if (index == table.length) {
+                index = 0;
+            }
+        }
+        table[index] = new MapEntry<>(key, value);
+        referenced[index] = true;
+        size++;
+        return null;
+    }
+
+    /**
+     * Gets the value cached for the given key and marks it as referenced.
+     * Counts a hit or a miss.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return the cached value, or null if the key is not cached
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot get entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        referenced[index] = true;
+        return table[index].getValue();
+    }
+
+    /**
+     * Returns whether or not the key is cached, without counting a hit or a
+     * miss or marking the entry as referenced.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is cached
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cache cannot contain null"
+                    + " keys");
+        }
+        return findIndex(key) != -1;
+    }
+
+    /**
+     * Removes the entry with a matching key from the cache.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not cached
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot remove entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("Cannot remove entry which is"
+                    + " not in cache");
+        }
+        V removedValue = table[index].getValue();
+        removeAt(index);
+        return removedValue;
+    }
+
+    /**
+     * Removes every entry from the cache. The counters are kept.
+     */
+    public void clear() {
+        table = new MapEntry[table.length];
+        referenced = new boolean[table.length];
+        size = 0;
+        hand = 0;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters to zero.
+     */
+    public void resetCounters() {
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+    }
+
+    /**
+     * Returns the number of {@code get} calls that found their key.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of {@code get} calls that did not find their key.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for new keys.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the maximum number of entries the cache holds.
+     *
+     * @return the maximum number of entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Private helper method to advance the clock hand until it finds an
+     * entry that has not been referenced since the hand last passed it, and
+     * evict that entry. Referenced entries passed on the way lose their
+     * reference bit.
+     */
+    private void evict() {
+        while (true) {
+            if (table[hand] != null) {
+                if (!referenced[hand]) {
+                    removeAt(hand);
+                    evictionCount++;
+                    return;
+                }
+                referenced[hand] = false;
+            }
+            hand++;
+            if (hand == table.length) {
+                hand = 0;
+            }
+        }
+    }
+
+    /**
+     * Private helper method to empty a slot and shift later entries of its
+     * cluster back into the gap, as long as that does not move an entry
+     * before its compressed hash.
+     *
+     * @param index the slot to empty
+     */
+    private void removeAt(int index) {
+        int gap = index;
+        int current = index;
+        while (true) {
+            current++;
+            if (current == table.length) {
+                current = 0;
+            }
+            MapEntry<K, V> entry = table[current];
+            if (entry == null) {
+                break;
+            }
+            int home = compressHash(entry.getKey().hashCode(), table.length);
+            boolean homeAfterGap = gap <= current
+                    ? gap < home && home <= current
+                    : gap < home || home <= current;
+            if (!homeAfterGap) {
+                table[gap] = entry;
+                referenced[gap] = referenced[current];
+                gap = current;
+            }
+        }
+        table[gap] = null;
+        referenced[gap] = false;
+        size--;
+    }
+
+    /**
+     * Private helper method to find the slot holding the given key.
+     *
+     * @param key the key to search for
+     * @return the index of the key, or -1 if the key is not cached
+     */
+    private int findIndex(K key) {
+        int index = compressHash(key.hashCode(), table.length);
+        while (table[index] != null) {
+            if (table[index].getKey().equals(key)) {
+                return index;
+            }
+            index++;
+            if (index == table.length) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Private helper method to get the positive compressed hash of a hash code
+     * based on the table length.
+     *
+     * @param hashCode the hash code to be compressed for a table
+     * @param tableLength the length of the table for which the hash code will
+     *                    be compressed
+     * @return the compressed hashcode
+     */
+    private int compressHash(int hashCode, int tableLength) {
+        int compressedHash = hashCode % tableLength;
+        if (compressedHash < 0) {
+            return -1 * compressedHash;
+        }
+        return compressedHash;
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     *
+     * @return number of entries in the cache
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of the cache, not a copy.
+     *
+     * @return the backing array of the cache
+     */
+    public MapEntry<K, V>[] getTable() {
+        return table;
+    }
+
+}
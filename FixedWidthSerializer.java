@@ -0,0 +1,95 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Converts values of a type to and from a fixed number of bytes, for
+ * storing them in {@code OffHeapHashMap}.
+ *
+ * Two equal values must serialize to the same bytes, and serializing then
+ * deserializing a value must give back an equal value.
+ *
+ * @param <T> the type of the serialized values
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public interface FixedWidthSerializer<T> {
+
+    FixedWidthSerializer<Integer> INTEGER = new FixedWidthSerializer<>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer value) {
+            buffer.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    FixedWidthSerializer<Long> LONG = new FixedWidthSerializer<>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long value) {
+            buffer.putLong(offset, value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    FixedWidthSerializer<Double> DOUBLE = new FixedWidthSerializer<>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double value) {
+            buffer.putLong(offset, Double.doubleToLongBits(value));
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return Double.longBitsToDouble(buffer.getLong(offset));
+        }
+    };
+
+    /**
+     * Returns the number of bytes every serialized value takes.
+     *
+     * @return the serialized width in bytes
+     */
+    int width();
+
+    /**
+     * Writes a value into the buffer at an absolute offset, without moving
+     * the buffer's position.
+     *
+     * @param buffer the buffer to write into
+     * @param offset the offset of the first byte to write
+     * @param value the value to write
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * Reads a value from the buffer at an absolute offset, without moving the
+     * buffer's position.
+     *
+     * @param buffer the buffer to read from
+     * @param offset the offset of the first byte to read
+     * @return the value read
+     */
+    T read(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,338 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Implementation of a HashMap that stores its entries in flat parallel
+ * arrays instead of {@code MapEntry} objects.
+ *
+ * Behaves exactly like {@code HashMap}: linear probing, the same load
+ * factors and the same 2 * old length + 1 growth. Each slot is a key and a
+ * value in two {@code Object} arrays plus a state byte, so probing reads the
+ * state array sequentially and only dereferences keys in live slots.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class FlatHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 13;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final double MAX_OCCUPIED_LOAD_FACTOR = 0.8;
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+    private static final byte REMOVED = 2;
+
+    private K[] keys;
+    private V[] values;
+    private byte[] states;
+    private int size;
+    private int removedCount;
+
+    /**
+     * Create a hash map with no entries. The backing arrays have an initial
+     * capacity of {@code INITIAL_CAPACITY}.
+     */
+    public FlatHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a hash map with no entries. The backing arrays have an initial
+     * capacity of {@code initialCapacity}.
+     *
+     * @param initialCapacity initial capacity of the backing arrays
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public FlatHashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " positive.");
+        }
+        allocate(initialCapacity);
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one.
+     *
+     * Follows the resize policy of {@code HashMap.put}.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " key into HashMap.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " value into HashMap.");
+        }
+        if (((double) size + 1) / states.length > MAX_LOAD_FACTOR) {
+            resizeBackingTable(states.length * 2 + 1);
+        } else if (((double) size + removedCount + 1) / states.length
+                > MAX_OCCUPIED_LOAD_FACTOR) {
+            resizeBackingTable(states.length);
+        }
+        int index = compressHash(key.hashCode(), states.length);
+        int firstRemovedIndex = -1;
+        for (int probeCount = 0; probeCount < states.length; probeCount++) {
+            byte state = states[index];
+            if (state == EMPTY) {
+                break;
+            } else if (state == REMOVED) {
+                if (firstRemovedIndex == -1) {
+                    firstRemovedIndex = index;
+                }
+            } else if (keys[index].equals(key)) {
+                V oldValue = values[index];
+                values[index] = value;
+                return oldValue;
+            }
+            index++;
+            if (index == states.length) {
+                index = 0;
+            }
+        }
+        if (firstRemovedIndex != -1) {
+            index = firstRemovedIndex;
+            removedCount--;
+        }
+        keys[index] = key;
+        values[index] = value;
+        states[index] = LIVE;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot remove entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("Cannot remove entry which is"
+                    + " not in HashMap");
+        }
+        states[index] = REMOVED;
+        size--;
+        removedCount++;
+        return values[index];
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot get entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("No element with this key in"
+                    + " HashMap");
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("HashMap cannot contain null"
+                    + " keys");
+        }
+        return findIndex(key) != -1;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keyHashSet = new HashSet<>();
+        for (int i = 0, added = 0; added < size; i++) {
+            if (states[i] == LIVE) {
+                keyHashSet.add(keys[i]);
+                added++;
+            }
+        }
+        return keyHashSet;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map, in order of
+     * increasing table index.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        ArrayList<V> valueList = new ArrayList<>(size);
+        for (int i = 0, added = 0; added < size; i++) {
+            if (states[i] == LIVE) {
+                valueList.add(values[i]);
+                added++;
+            }
+        }
+        return valueList;
+    }
+
+    /**
+     * Resize the backing arrays to {@code length}, disregarding the load
+     * factor. Entries are added to the new arrays in order of increasing
+     * index, and removed entries are dropped.
+     *
+     * @param length new length of the backing arrays
+     * @throws IllegalArgumentException if length is less than the number of
+     * items in the hash map
+     */
+    public void resizeBackingTable(int length) {
+        if (length < size) {
+            throw new IllegalArgumentException("Cannot resize to less than"
+                    + " HashMap size.");
+        }
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        byte[] oldStates = states;
+        allocate(length);
+        for (int i = 0, added = 0; added < size; i++) {
+            if (oldStates[i] == LIVE) {
+                int index = compressHash(oldKeys[i].hashCode(), length);
+                while (states[index] != EMPTY) {
+                    index++;
+                    if (index == length) {
+                        index = 0;
+                    }
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                states[index] = LIVE;
+                added++;
+            }
+        }
+    }
+
+    /**
+     * Clears the map and resets the backing arrays to
+     * {@code INITIAL_CAPACITY}.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Private helper method to find the slot holding the live entry with the
+     * given key.
+     *
+     * @param key the key to search for
+     * @return the index of the key, or -1 if the key is not in the map
+     */
+    private int findIndex(K key) {
+        int index = compressHash(key.hashCode(), states.length);
+        for (int probeCount = 0; probeCount < states.length; probeCount++) {
+            byte state = states[index];
+            if (state == EMPTY) {
+                return -1;
+            } else if (state == LIVE && keys[index].equals(key)) {
+                return index;
+            }
+            index++;
+            if (index == states.length) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Private helper method to replace the backing arrays with empty arrays
+     * of the given length.
+     *
+     * @param length the new length of the backing arrays
+     */
+    private void allocate(int length) {
+        keys = (K[]) new Object[length];
+        values = (V[]) new Object[length];
+        states = new byte[length];
+        removedCount = 0;
+    }
+
+    /**
+     * Private helper method to get the positive compressed hash of a hash code
+     * based on the table length.
+     *
+     * @param hashCode the hash code to be compressed for a table
+     * @param tableLength the length of the table for which the hash code will
+     *                    be compressed
+     * @return the compressed hashcode
+     */
+    private int compressHash(int hashCode, int tableLength) {
+        int compressedHash = hashCode % tableLength;
+        if (compressedHash < 0) {
+            return -1 * compressedHash;
+        }
+        return compressedHash;
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a view of the backing arrays laid out like the table of
+     * {@code HashMap}: empty slots are null and removed slots hold entries
+     * marked as removed.
+     *
+     * The view is built on every call, so changes to it are not written back
+     * to the map.
+     *
+     * @return a table view of the backing arrays
+     */
+    public MapEntry<K, V>[] getTable() {
+        MapEntry<K, V>[] table = new MapEntry[states.length];
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] != EMPTY) {
+                table[i] = new MapEntry<>(keys[i], values[i]);
+                table[i].setRemoved(states[i] == REMOVED);
+            }
+        }
+        return table;
+    }
+
+}
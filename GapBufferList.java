@@ -0,0 +1,235 @@
+/**
+ * Implementation of a list backed by a gap buffer.
+ *
+ * The backing array keeps its free space as one gap that follows the most
+ * recent edit. Adding or removing at the gap is O(1), and moving the gap by
+ * k positions costs one bulk copy of k elements, so edits clustered around
+ * a moving cursor are much cheaper than in {@code ArrayList}, where every
+ * middle edit shifts the whole tail. {@code get} stays O(1).
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class GapBufferList<T> {
+
+    /**
+     * The initial capacity of the list.
+     */
+    public static final int INITIAL_CAPACITY = 13;
+
+    private T[] backingArray;
+    private int gapStart;
+    private int gapEnd;
+    private int size;
+
+    /**
+     * Constructs a new GapBufferList.
+     */
+    public GapBufferList() {
+        backingArray = (T[]) new Object[INITIAL_CAPACITY];
+        gapStart = 0;
+        gapEnd = INITIAL_CAPACITY;
+        size = 0;
+    }
+
+    /**
+     * Adds the element to the index specified.
+     *
+     * O(1) when index is at the gap, which is where the previous edit
+     * happened, and O(distance from the gap) otherwise.
+     *
+     * @param index The index where you want the new element.
+     * @param data The data to add to the list.
+     * @throws java.lang.IndexOutOfBoundsException if index is negative
+     * or index > size
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void addAtIndex(int index, T data) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index for adding has to be"
+                    + " between 0 and the size of the list");
+        }
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot insert null data into"
+                    + " data structure.");
+        }
+        if (gapStart == gapEnd) {
+            grow();
+        }
+        moveGap(index);
+        backingArray[gapStart] = data;
+        gapStart++;
+        size++;
+    }
+
+    /**
+     * Add the given data to the front of the list.
+     *
+     * @param data The data to add to the list.
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void addToFront(T data) {
+        addAtIndex(0, data);
+    }
+
+    /**
+     * Add the given data to the back of the list.
+     *
+     * @param data The data to add to the list.
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void addToBack(T data) {
+        addAtIndex(size, data);
+    }
+
+    /**
+     * Removes and returns the element at index.
+     *
+     * O(1) when the element is next to the gap and O(distance from the gap)
+     * otherwise.
+     *
+     * @param index The index of the element
+     * @return The object that was formerly at that index.
+     * @throws java.lang.IndexOutOfBoundsException if index < 0 or
+     * index >= size
+     */
+    public T removeAtIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index for removing has to be"
+                    + " between 0 and the size of the list minus 1");
+        }
+        moveGap(index);
+        T removedData = backingArray[gapEnd];
+        backingArray[gapEnd] = null;
+        gapEnd++;
+        size--;
+        return removedData;
+    }
+
+    /**
+     * Remove the first element in the list and return it.
+     *
+     * @return The data from the front of the list or null if the list is empty
+     */
+    public T removeFromFront() {
+        if (size == 0) {
+            return null;
+        }
+        return removeAtIndex(0);
+    }
+
+    /**
+     * Remove the last element in the list and return it.
+     *
+     * @return The data from the back of the list or null if the list is empty
+     */
+    public T removeFromBack() {
+        if (size == 0) {
+            return null;
+        }
+        return removeAtIndex(size - 1);
+    }
+
+    /**
+     * Returns the element at the given index.
+     *
+     * Must be O(1).
+     *
+     * @param index The index of the element
+     * @return The data stored at that index.
+     * @throws java.lang.IndexOutOfBoundsException if index < 0 or
+     * index >= size
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index for getting has to be"
+                    + " between 0 and the size of the list minus 1");
+        }
+        if (index < gapStart) {
+            return backingArray[index];
+        }
+        return backingArray[index + gapEnd - gapStart];
+    }
+
+    /**
+     * Return a boolean value representing whether or not the list is empty.
+     *
+     * @return true if empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clear the list. Reset the backing array to a new array of the initial
+     * capacity.
+     */
+    public void clear() {
+        backingArray = (T[]) new Object[INITIAL_CAPACITY];
+        gapStart = 0;
+        gapEnd = INITIAL_CAPACITY;
+        size = 0;
+    }
+
+    /**
+     * Return the size of the list as an integer.
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Private helper method to move the gap so it starts at index, copying
+     * the elements between the old and new gap position across it.
+     *
+     * @param index the list index the gap should start at
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(backingArray, index, backingArray,
+                    gapEnd - count, count);
+            clearSlots(index, Math.min(gapStart, gapEnd - count));
+            gapStart = index;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(backingArray, gapEnd, backingArray, gapStart,
+                    count);
+            clearSlots(Math.max(gapEnd, index), gapEnd + count);
+            gapStart = index;
+            gapEnd += count;
+        }
+    }
+
+    /**
+     * Private helper method to null out slots that became part of the gap,
+     * so the list does not keep removed elements reachable.
+     *
+     * @param from the first slot to clear
+     * @param to one past the last slot to clear
+     */
+    private void clearSlots(int from, int to) {
+        for (int i = from; i < to; i++) {
+            backingArray[i] = null;
+        }
+    }
+
+    /**
+     * Private helper method to double the backing array, keeping the gap at
+     * the same list index and giving it all of the new space.
+     */
+    private void grow() {
+        T[] newBackingArray = (T[]) new Object[backingArray.length * 2];
+        int tail = backingArray.length - gapEnd;
+        System.arraycopy(backingArray, 0, newBackingArray, 0, gapStart);
+        System.arraycopy(backingArray, gapEnd, newBackingArray,
+                newBackingArray.length - tail, tail);
+        gapEnd = newBackingArray.length - tail;
+        backingArray = newBackingArray;
+    }
+}
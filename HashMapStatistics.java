@@ -0,0 +1,215 @@
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the statistics recorded by a {@code HashMap}.
+ *
+ * The probe length of an operation is the number of table slots it
+ * inspected, so an operation that finds its key or an empty slot at the
+ * key's compressed hash has a probe length of 1. Probe lengths of
+ * {@code put}, {@code remove}, {@code get}, {@code containsKey} and
+ * {@code getAll} are recorded.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public final class HashMapStatistics {
+
+    /**
+     * The number of histogram buckets. The last bucket counts every probe
+     * length of {@code PROBE_HISTOGRAM_LENGTH - 1} or more.
+     */
+    public static final int PROBE_HISTOGRAM_LENGTH = 64;
+
+    private final long[] probeHistogram;
+    private final long resizeCount;
+    private final long resizeNanos;
+    private final long compactionCount;
+    private final int size;
+    private final int removedCount;
+    private final int capacity;
+    private final int longestCluster;
+
+    /**
+     * Creates a snapshot. Only {@code HashMap} creates snapshots.
+     *
+     * @param probeHistogram operation counts indexed by probe length
+     * @param resizeCount the number of calls to resizeBackingTable
+     * @param resizeNanos the total time spent in resizeBackingTable
+     * @param compactionCount the number of in-place rehashes
+     * @param size the number of entries in the map
+     * @param removedCount the number of removed entries in the table
+     * @param capacity the length of the table
+     * @param longestCluster the longest run of occupied slots in the table
+     */
+    HashMapStatistics(long[] probeHistogram, long resizeCount,
+                      long resizeNanos, long compactionCount, int size,
+                      int removedCount, int capacity, int longestCluster) {
+        this.probeHistogram = probeHistogram;
+        this.resizeCount = resizeCount;
+        this.resizeNanos = resizeNanos;
+        this.compactionCount = compactionCount;
+        this.size = size;
+        this.removedCount = removedCount;
+        this.capacity = capacity;
+        this.longestCluster = longestCluster;
+    }
+
+    /**
+     * Returns the number of recorded operations with each probe length.
+     *
+     * @return a copy of the histogram, indexed by probe length
+     */
+    public long[] getProbeHistogram() {
+        return probeHistogram.clone();
+    }
+
+    /**
+     * Returns the number of recorded operations.
+     *
+     * @return the operation count
+     */
+    public long getOperationCount() {
+        long count = 0;
+        for (long bucket : probeHistogram) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mean probe length of the recorded operations. Lengths in
+     * the last histogram bucket count as that bucket's index.
+     *
+     * @return the mean probe length, or 0 if nothing was recorded
+     */
+    public double getAverageProbeLength() {
+        long count = 0;
+        long total = 0;
+        for (int i = 0; i < probeHistogram.length; i++) {
+            count += probeHistogram[i];
+            total += i * probeHistogram[i];
+        }
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Returns the smallest probe length that at least the given fraction of
+     * the recorded operations did not exceed.
+     *
+     * @param fraction the fraction of operations, between 0 and 1
+     * @return the probe length at that fraction, or 0 if nothing was
+     * recorded
+     * @throws IllegalArgumentException if fraction is not between 0 and 1
+     */
+    public int getProbeLengthPercentile(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Fraction must be between 0"
+                    + " and 1.");
+        }
+        long target = (long) Math.ceil(fraction * getOperationCount());
+        long seen = 0;
+        for (int i = 0; i < probeHistogram.length; i++) {
+            seen += probeHistogram[i];
+            if (seen >= target && seen > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of times the backing table was resized.
+     *
+     * @return the resize count
+     */
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Returns the total time spent resizing the backing table.
+     *
+     * @return the resize time in nanoseconds
+     */
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+    /**
+     * Returns the number of times the table was rehashed in place to clear
+     * removed entries.
+     *
+     * @return the compaction count
+     */
+    public long getCompactionCount() {
+        return compactionCount;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the size of the map
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the backing table.
+     *
+     * @return the capacity of the map
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the fraction of the table taken by live entries.
+     *
+     * @return the load factor
+     */
+    public double getLoadFactor() {
+        return (double) size / capacity;
+    }
+
+    /**
+     * Returns the number of removed entries still occupying slots.
+     *
+     * @return the removed entry count
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    /**
+     * Returns the fraction of the table taken by removed entries.
+     *
+     * @return the tombstone ratio
+     */
+    public double getTombstoneRatio() {
+        return (double) removedCount / capacity;
+    }
+
+    /**
+     * Returns the longest run of consecutive occupied slots, counting live
+     * and removed entries, and wrapping around the end of the table.
+     *
+     * @return the longest cluster length
+     */
+    public int getLongestCluster() {
+        return longestCluster;
+    }
+
+    @Override
+    public String toString() {
+        return "HashMapStatistics{size=" + size + ", capacity=" + capacity
+                + ", removedCount=" + removedCount + ", longestCluster="
+                + longestCluster + ", averageProbeLength="
+                + getAverageProbeLength() + ", resizeCount=" + resizeCount
+                + ", resizeNanos=" + resizeNanos + ", compactionCount="
+                + compactionCount + ", probeHistogram="
+                + Arrays.toString(probeHistogram) + "}";
+    }
+}
@@ -0,0 +1,456 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Implementation of a linear probing HashMap that resizes incrementally.
+ *
+ * Where {@code HashMap} rehashes the whole table inside one {@code put},
+ * this map allocates the new table and keeps the old one alive. Every later
+ * {@code put}, {@code get}, {@code remove} and {@code containsKey} moves at
+ * most {@code MIGRATION_STEP} old slots into the new table, and lookups
+ * consult both tables until the old one is empty. A key is only ever live
+ * in one of the two tables.
+ *
+ * Table lengths, load factors and growth follow {@code HashMap}. A
+ * migration moves the old table in about length / {@code MIGRATION_STEP}
+ * operations. A new table is only chosen if the puts made in that time
+ * cannot push it past the max load factor: a grown table always has room,
+ * and a rehash that clears removed entries keeps the same length only if
+ * enough headroom is left, and grows otherwise. Every operation therefore
+ * moves at most {@code MIGRATION_STEP} slots, and only
+ * {@code resizeBackingTable} moves a whole table in one go.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class IncrementalHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 13;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final double MAX_OCCUPIED_LOAD_FACTOR = 0.8;
+    public static final int MIGRATION_STEP = 8;
+    private static final MapEntry MOVED = new MapEntry<>(null, null);
+
+    static {
+        MOVED.setRemoved(true);
+    }
+
+    private MapEntry<K, V>[] table;
+    private MapEntry<K, V>[] oldTable;
+    private int migrationIndex;
+    private int size;
+    private int removedCount;
+
+    /**
+     * Create a hash map with no entries. The backing array has an initial
+     * capacity of {@code INITIAL_CAPACITY}.
+     */
+    public IncrementalHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a hash map with no entries. The backing array has an initial
+     * capacity of {@code initialCapacity}.
+     *
+     * @param initialCapacity initial capacity of the backing array
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public IncrementalHashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " positive.");
+        }
+        table = new MapEntry[initialCapacity];
+        size = 0;
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one.
+     *
+     * If no migration is in progress and adding the entry would violate
+     * the max load factor, a migration to a table of length
+     * 2 * old length + 1 is started instead of rehashing everything at once.
+     * If live and removed entries together would exceed
+     * {@code MAX_OCCUPIED_LOAD_FACTOR}, a migration that drops the removed
+     * entries is started, to a table of the same length if it has headroom
+     * for the migration and to a grown table otherwise.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " key into HashMap.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " value into HashMap.");
+        }
+        migrate(MIGRATION_STEP);
+        if (oldTable == null) {
+            if (((double) size + 1) / table.length > MAX_LOAD_FACTOR) {
+                startMigration(table.length * 2 + 1);
+            } else if (((double) size + removedCount + 1) / table.length
+                    > MAX_OCCUPIED_LOAD_FACTOR) {
+                startMigration(hasHeadroom(table.length) ? table.length
+                        : table.length * 2 + 1);
+            }
+        }
+        if (oldTable != null) {
+            int oldIndex = findIndex(oldTable, key);
+            if (oldIndex != -1) {
+                V oldValue = oldTable[oldIndex].getValue();
+                oldTable[oldIndex].setValue(value);
+                return oldValue;
+            }
+        }
+        int index = compressHash(key.hashCode(), table.length);
+        int firstRemovedIndex = -1;
+        for (int probeCount = 0; probeCount < table.length; probeCount++) {
+            MapEntry<K, V> probeEntry = table[index];
+            if (probeEntry == null) {
+                break;
+            } else if (probeEntry.isRemoved()) {
+                if (firstRemovedIndex == -1) {
+                    firstRemovedIndex = index;
+                }
+            } else if (probeEntry.getKey().equals(key)) {
+                V oldValue = probeEntry.getValue();
+                probeEntry.setValue(value);
+                return oldValue;
+            }
+            index++;
+            if (index == table.length) {
+                index = 0;
+            }
+        }
+        if (firstRemovedIndex != -1) {
+            index = firstRemovedIndex;
+            removedCount--;
+        }
+        table[index] = new MapEntry<>(key, value);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot remove entry with null"
+                    + " key.");
+        }
+        migrate(MIGRATION_STEP);
+        int index = findIndex(table, key);
+        if (index != -1) {
+            table[index].setRemoved(true);
+            size--;
+            removedCount++;
+            return table[index].getValue();
+        }
+        if (oldTable != null) {
+            index = findIndex(oldTable, key);
+            if (index != -1) {
+                oldTable[index].setRemoved(true);
+                size--;
+                return oldTable[index].getValue();
+            }
+        }
+        throw new NoSuchElementException("Cannot remove entry which is"
+                + " not in HashMap");
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot get entry with null"
+                    + " key.");
+        }
+        MapEntry<K, V> entry = findEntry(key);
+        if (entry == null) {
+            throw new NoSuchElementException("No element with this key in"
+                    + " HashMap");
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("HashMap cannot contain null"
+                    + " keys");
+        }
+        return findEntry(key) != null;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keyHashSet = new HashSet<>();
+        addLiveEntries(table, keyHashSet, null);
+        addLiveEntries(oldTable, keyHashSet, null);
+        return keyHashSet;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map. Values of the
+     * current table come first, followed by values still waiting in the old
+     * table, each in order of increasing index.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        ArrayList<V> valueList = new ArrayList<>(size);
+        addLiveEntries(table, null, valueList);
+        addLiveEntries(oldTable, null, valueList);
+        return valueList;
+    }
+
+    /**
+     * Resize the backing table to {@code length} in one go, disregarding
+     * the load factor. Any migration in progress is finished first.
+     *
+     * @param length new length of the backing table
+     * @throws IllegalArgumentException if length is less than the number of
+     * items in the hash map
+     */
+    public void resizeBackingTable(int length) {
+        if (length < size) {
+            throw new IllegalArgumentException("Cannot resize to less than"
+                    + " HashMap size.");
+        }
+        migrate(Integer.MAX_VALUE);
+        startMigration(length);
+        migrate(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Clears the table and resets it to {@code INITIAL_CAPACITY}, dropping
+     * any migration in progress.
+     */
+    public void clear() {
+        table = new MapEntry[INITIAL_CAPACITY];
+        oldTable = null;
+        migrationIndex = 0;
+        size = 0;
+        removedCount = 0;
+    }
+
+    /**
+     * Returns whether a migration from an old table is in progress.
+     *
+     * @return true if lookups still have to consult the old table
+     */
+    public boolean isMigrating() {
+        return oldTable != null;
+    }
+
+    /**
+     * Private helper method to look a key up in both tables, moving a
+     * bounded number of old slots first.
+     *
+     * @param key the key to search for
+     * @return the live entry with the key, or null if it is not in the map
+     */
+    private MapEntry<K, V> findEntry(K key) {
+        migrate(MIGRATION_STEP);
+        int index = findIndex(table, key);
+        if (index != -1) {
+            return table[index];
+        }
+        if (oldTable != null) {
+            index = findIndex(oldTable, key);
+            if (index != -1) {
+                return oldTable[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Private helper method to check whether a migration into a table of
+     * the given length finishes before the puts made while it runs can
+     * push the table past the max load factor. The migration takes
+     * ceil(length / {@code MIGRATION_STEP}) operations after the one that
+     * starts it, and each of them, as well as the starting put, can add an
+     * entry.
+     *
+     * @param length the length of the new table
+     * @return true if the new table has room for the whole migration
+     */
+    private boolean hasHeadroom(int length) {
+        int migrationOps = (length + MIGRATION_STEP - 1) / MIGRATION_STEP;
+        return ((double) size + migrationOps + 2) / length
+                <= MAX_LOAD_FACTOR;
+    }
+
+    /**
+     * Private helper method to make the current table the old table and
+     * start filling an empty table of the given length.
+     *
+     * @param length the length of the new table
+     */
+    private void startMigration(int length) {
+        oldTable = table;
+        migrationIndex = 0;
+        table = new MapEntry[length];
+        removedCount = 0;
+    }
+
+    /**
+     * Private helper method to move up to {@code steps} slots of the old
+     * table into the current table. Moved slots are replaced with a removed
+     * marker so probe sequences through the old table stay intact.
+     *
+     * @param steps the maximum number of old slots to visit
+     */
+    private void migrate(int steps) {
+        if (oldTable == null) {
+            return;
+        }
+        for (int i = 0; i < steps && migrationIndex < oldTable.length; i++) {
+            MapEntry<K, V> entry = oldTable[migrationIndex];
+            if (entry != null && !entry.isRemoved()) {
+                int index = compressHash(entry.getKey().hashCode(),
+                        table.length);
+                while (table[index] != null && !table[index].isRemoved()) {
+                    index++;
+                    if (index == table.length) {
+                        index = 0;
+                    }
+                }
+                if (table[index] != null) {
+                    removedCount--;
+                }
+                table[index] = entry;
+                oldTable[migrationIndex] = MOVED;
+            }
+            migrationIndex++;
+        }
+        if (migrationIndex == oldTable.length) {
+            oldTable = null;
+            migrationIndex = 0;
+        }
+    }
+
+    /**
+     * Private helper method to find the live entry with the given key in
+     * one table.
+     *
+     * @param probeTable the table to search
+     * @param key the key to search for
+     * @return the index of the entry, or -1 if the key is not in the table
+     */
+    private int findIndex(MapEntry<K, V>[] probeTable, K key) {
+        int index = compressHash(key.hashCode(), probeTable.length);
+        for (int probeCount = 0; probeCount < probeTable.length;
+                probeCount++) {
+            MapEntry<K, V> probeEntry = probeTable[index];
+            if (probeEntry == null) {
+                return -1;
+            } else if (!probeEntry.isRemoved()
+                    && probeEntry.getKey().equals(key)) {
+                return index;
+            }
+            index++;
+            if (index == probeTable.length) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Private helper method to collect the live keys or values of a table.
+     *
+     * @param sourceTable the table to read, may be null
+     * @param keys the set to add keys to, or null
+     * @param values the list to add values to, or null
+     */
+    private void addLiveEntries(MapEntry<K, V>[] sourceTable, Set<K> keys,
+                                List<V> values) {
+        if (sourceTable == null) {
+            return;
+        }
+        for (MapEntry<K, V> entry : sourceTable) {
+            if (entry != null && !entry.isRemoved()) {
+                if (keys != null) {
+                    keys.add(entry.getKey());
+                }
+                if (values != null) {
+                    values.add(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Private helper method to get the positive compressed hash of a hash code
+     * based on the table length.
+     *
+     * @param hashCode the hash code to be compressed for a table
+     * @param tableLength the length of the table for which the hash code will
+     *                    be compressed
+     * @return the compressed hashcode
+     */
+    private int compressHash(int hashCode, int tableLength) {
+        int compressedHash = hashCode % tableLength;
+        if (compressedHash < 0) {
+            return -1 * compressedHash;
+        }
+        return compressedHash;
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the current backing array of the map, not a copy. While a
+     * migration is in progress some entries are still in the old table.
+     *
+     * @return the current backing array of the map
+     */
+    public MapEntry<K, V>[] getTable() {
+        return table;
+    }
+
+}
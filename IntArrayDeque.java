@@ -0,0 +1,246 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of an array deque of {@code int} values.
+ *
+ * Has the same contract as {@code RingBufferDeque}: the backing
+ * {@code int[]} is a ring buffer with a power-of-two capacity, indexes wrap
+ * with {@code & (capacity - 1)}, and growing takes two bulk copies. No
+ * element is boxed, so adds do not allocate and each element takes 4 bytes
+ * instead of a reference plus an {@code Integer}. {@code get} reads the
+ * element at a position counted from the front, which suits sliding
+ * windows.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class IntArrayDeque {
+
+    /**
+     * The initial capacity of the IntArrayDeque.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The largest power of two capacity an array can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] backingArray;
+    private int front;
+    private int back;
+    private int size;
+
+    /**
+     * Constructs a new IntArrayDeque with an initial capacity of
+     * the {@code INITIAL_CAPACITY} constant above.
+     */
+    public IntArrayDeque() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new IntArrayDeque with an initial capacity of
+     * {@code initialCapacity} rounded up to the next power of two.
+     *
+     * @param initialCapacity the minimum initial capacity
+     * @throws java.lang.IllegalArgumentException if initialCapacity is not
+     * positive or larger than {@code 2^30}
+     */
+    public IntArrayDeque(int initialCapacity) {
+        if (initialCapacity <= 0 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " between 1 and 2^30.");
+        }
+        backingArray = new int[powerOfTwoFor(initialCapacity)];
+        front = 0;
+        back = 0;
+        size = 0;
+    }
+
+    /**
+     * Adds the data to the front of the deque, doubling the backing array
+     * first if it is full.
+     *
+     * This method must run in amortized O(1) time.
+     *
+     * @param data the data to add to the deque
+     */
+    public void addFirst(int data) {
+        if (size == backingArray.length) {
+            grow();
+        }
+        front = (front - 1) & (backingArray.length - 1);
+        backingArray[front] = data;
+        size++;
+    }
+
+    /**
+     * Adds the data to the back of the deque, doubling the backing array
+     * first if it is full.
+     *
+     * This method must run in amortized O(1) time.
+     *
+     * @param data the data to add to the deque
+     */
+    public void addLast(int data) {
+        if (size == backingArray.length) {
+            grow();
+        }
+        backingArray[back] = data;
+        back = (back + 1) & (backingArray.length - 1);
+        size++;
+    }
+
+    /**
+     * Removes the data at the front of the deque.
+     *
+     * This method must run in O(1) time.
+     *
+     * @return the data formerly at the front of the deque
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    public int removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Cannot remove from an empty"
+                    + " IntArrayDeque");
+        }
+        int removedData = backingArray[front];
+        front = (front + 1) & (backingArray.length - 1);
+        size--;
+        return removedData;
+    }
+
+    /**
+     * Removes the data at the back of the deque.
+     *
+     * This method must run in O(1) time.
+     *
+     * @return the data formerly at the back of the deque
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    public int removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("Cannot remove from an empty"
+                    + " IntArrayDeque");
+        }
+        back = (back - 1) & (backingArray.length - 1);
+        size--;
+        return backingArray[back];
+    }
+
+    /**
+     * Returns the data at the front of the deque without removing it.
+     *
+     * @return the data at the front of the deque
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    public int peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Cannot peek into an empty"
+                    + " IntArrayDeque");
+        }
+        return backingArray[front];
+    }
+
+    /**
+     * Returns the data at the back of the deque without removing it.
+     *
+     * @return the data at the back of the deque
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    public int peekLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("Cannot peek into an empty"
+                    + " IntArrayDeque");
+        }
+        return backingArray[(back - 1) & (backingArray.length - 1)];
+    }
+
+    /**
+     * Returns the data at the given position, where 0 is the front of the
+     * deque and {@code size - 1} is the back.
+     *
+     * Must be O(1).
+     *
+     * @param index the position of the element from the front
+     * @return the data at that position
+     * @throws java.lang.IndexOutOfBoundsException if index < 0 or
+     * index >= size
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index for getting has to be"
+                    + " between 0 and the size of the deque minus 1");
+        }
+        return backingArray[(front + index) & (backingArray.length - 1)];
+    }
+
+    /**
+     * Returns the number of elements in the deque.
+     *
+     * Runs in O(1) for all cases.
+     *
+     * @return the size of the deque
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return a boolean value representing whether or not the deque is empty.
+     *
+     * @return true if empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element from the deque. The backing array is kept, so
+     * refilling the deque to the same size does not allocate.
+     */
+    public void clear() {
+        front = 0;
+        back = 0;
+        size = 0;
+    }
+
+    /**
+     * Private helper method to double the backing array of a full deque.
+     * The run from front to the end of the old array and the wrapped run
+     * from the start of the old array to back are copied with one bulk copy
+     * each, so the front of the deque ends up at index 0.
+     *
+     * @throws java.lang.IllegalStateException if the deque is already at
+     * the largest supported capacity
+     */
+    private void grow() {
+        if (backingArray.length == MAX_CAPACITY) {
+            throw new IllegalStateException("IntArrayDeque cannot grow past"
+                    + " 2^30 elements.");
+        }
+        int[] newBackingArray = new int[backingArray.length * 2];
+        int frontRun = backingArray.length - front;
+        System.arraycopy(backingArray, front, newBackingArray, 0, frontRun);
+        System.arraycopy(backingArray, 0, newBackingArray, frontRun, front);
+        backingArray = newBackingArray;
+        front = 0;
+        back = size;
+    }
+
+    /**
+     * Private helper method to round a capacity up to a power of two.
+     *
+     * @param capacity a capacity between 1 and {@code MAX_CAPACITY}
+     * @return the smallest power of two that is at least capacity
+     */
+    private static int powerOfTwoFor(int capacity) {
+        if (capacity == 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
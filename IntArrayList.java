@@ -0,0 +1,216 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of an ArrayList of {@code int} values.
+ *
+ * Has the same operations as {@code ArrayList}, but stores its elements in
+ * an {@code int[]}, so no element is boxed. An {@code ArrayList<Integer>}
+ * holds a 4 byte reference plus a 16 byte {@code Integer} per element with
+ * compressed references, so this list needs about a fifth of the memory.
+ * {@code getBackingArray} returns the backing array itself, so callers can
+ * read the first {@code size()} elements without copying.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class IntArrayList {
+
+    /**
+     * The initial capacity of the array list.
+     */
+    public static final int INITIAL_CAPACITY = 13;
+
+    private int[] backingArray;
+    private int size;
+
+    /**
+     * Constructs a new IntArrayList.
+     */
+    public IntArrayList() {
+        backingArray = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Adds the element to the index specified, shifting later elements
+     * right.
+     *
+     * Adding to index {@code size} is amortized O(1), all other adds are
+     * O(n).
+     *
+     * @param index The index where you want the new element.
+     * @param data The data to add to the list.
+     * @throws java.lang.IndexOutOfBoundsException if index is negative
+     * or index > size
+     */
+    public void addAtIndex(int index, int data) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index for adding has to be"
+                    + " between 0 and the size of the list");
+        }
+        insert(index, data);
+    }
+
+    /**
+     * Add the given data to the front of the list.
+     *
+     * Must be O(n).
+     *
+     * @param data The data to add to the list.
+     */
+    public void addToFront(int data) {
+        insert(0, data);
+    }
+
+    /**
+     * Add the given data to the back of the list.
+     *
+     * Must be amortized O(1).
+     *
+     * @param data The data to add to the list.
+     */
+    public void addToBack(int data) {
+        insert(size, data);
+    }
+
+    /**
+     * Removes and returns the element at index, shifting later elements
+     * left.
+     *
+     * O(1) for index {@code size - 1} and O(n) in all other cases.
+     *
+     * @param index The index of the element
+     * @return The value that was formerly at that index.
+     * @throws java.lang.IndexOutOfBoundsException if index < 0 or
+     * index >= size
+     */
+    public int removeAtIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index for removing has to be"
+                    + " between 0 and the size of the list minus 1");
+        }
+        int removedData = backingArray[index];
+        System.arraycopy(backingArray, index + 1, backingArray, index,
+                size - index - 1);
+        size -= 1;
+        return removedData;
+    }
+
+    /**
+     * Remove the first element in the list and return it.
+     *
+     * Must be O(n).
+     *
+     * @return The data from the front of the list
+     * @throws java.util.NoSuchElementException if the list is empty
+     */
+    public int removeFromFront() {
+        if (size == 0) {
+            throw new NoSuchElementException("Cannot remove from an empty"
+                    + " list.");
+        }
+        return removeAtIndex(0);
+    }
+
+    /**
+     * Remove the last element in the list and return it.
+     *
+     * Must be O(1).
+     *
+     * @return The data from the back of the list
+     * @throws java.util.NoSuchElementException if the list is empty
+     */
+    public int removeFromBack() {
+        if (size == 0) {
+            throw new NoSuchElementException("Cannot remove from an empty"
+                    + " list.");
+        }
+        size -= 1;
+        return backingArray[size];
+    }
+
+    /**
+     * Returns the element at the given index.
+     *
+     * Must be O(1).
+     *
+     * @param index The index of the element
+     * @return The data stored at that index.
+     * @throws java.lang.IndexOutOfBoundsException if index < 0 or
+     * index >= size
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index for getting has to be"
+                    + " between 0 and the size of the list minus 1");
+        }
+        return backingArray[index];
+    }
+
+    /**
+     * Return a boolean value representing whether or not the list is empty.
+     *
+     * Must be O(1).
+     *
+     * @return true if empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clear the list. Reset the backing array to a new array of the initial
+     * capacity.
+     *
+     * Must be O(1).
+     */
+    public void clear() {
+        backingArray = new int[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Return the size of the list as an integer.
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return the backing array for this list, not a copy. Only the first
+     * {@code size()} elements are part of the list, and the array is
+     * replaced whenever the list grows.
+     *
+     * @return the backing array for this list
+     */
+    public int[] getBackingArray() {
+        return backingArray;
+    }
+
+    /**
+     * Private helper method to insert data at a valid index, shifting in
+     * place when there is spare capacity and doubling the backing array
+     * when it is full.
+     *
+     * @param index The index where the new element goes, 0 to size.
+     * @param data The data to insert.
+     */
+    private void insert(int index, int data) {
+        if (backingArray.length == size) {
+            int[] newBackingArray = new int[backingArray.length * 2];
+            System.arraycopy(backingArray, 0, newBackingArray, 0, index);
+            System.arraycopy(backingArray, index, newBackingArray, index + 1,
+                    size - index);
+            backingArray = newBackingArray;
+        } else if (index < size) {
+            System.arraycopy(backingArray, index, backingArray, index + 1,
+                    size - index);
+        }
+        backingArray[index] = data;
+        size += 1;
+    }
+}
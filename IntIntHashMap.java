@@ -0,0 +1,317 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a HashMap from {@code int} keys to {@code int} values.
+ *
+ * Uses the same linear probing design as {@code HashMap}, but keys and
+ * values live in parallel {@code int} arrays, so {@code put} and
+ * {@code get} do not allocate. A key of {@code FREE_KEY} marks an empty
+ * slot, so that key is kept outside the table, and removed slots are tracked
+ * in a bitset instead of {@code MapEntry} flags.
+ *
+ * With compressed references, a boxed {@code HashMap<Integer, Integer>}
+ * needs a table reference, a {@code MapEntry} and two {@code Integer}s per
+ * entry, roughly 60 bytes at the max load factor. This map needs about 12
+ * bytes per entry at the same load.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class IntIntHashMap {
+
+    public static final int INITIAL_CAPACITY = 13;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final double MAX_OCCUPIED_LOAD_FACTOR = 0.8;
+    public static final int FREE_KEY = 0;
+
+    private int[] keys;
+    private int[] values;
+    private long[] removed;
+    private int size;
+    private int removedCount;
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    /**
+     * Create a hash map with no entries. The backing arrays have an initial
+     * capacity of {@code INITIAL_CAPACITY}.
+     */
+    public IntIntHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a hash map with no entries. The backing arrays have an initial
+     * capacity of {@code initialCapacity}.
+     *
+     * @param initialCapacity initial capacity of the backing arrays
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public IntIntHashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " positive.");
+        }
+        allocate(initialCapacity);
+    }
+
+    /**
+     * Adds the given key-value pair to the map, replacing the value if the
+     * key is already in the map.
+     *
+     * Follows the resize policy of {@code HashMap.put}: the table grows to
+     * 2 * old length + 1 if the new entry would violate
+     * {@code MAX_LOAD_FACTOR}, and is rehashed at its current length if live
+     * and removed slots together would exceed
+     * {@code MAX_OCCUPIED_LOAD_FACTOR}.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @return the old value associated with the key, or 0 if the key was not
+     * already in the map
+     */
+    public int put(int key, int value) {
+        if (key == FREE_KEY) {
+            int oldValue = freeKeyValue;
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return oldValue;
+        }
+        if (((double) size + 1) / keys.length > MAX_LOAD_FACTOR) {
+            resizeBackingTable(keys.length * 2 + 1);
+        } else if (((double) size + removedCount + 1) / keys.length
+                > MAX_OCCUPIED_LOAD_FACTOR) {
+            resizeBackingTable(keys.length);
+        }
+        int index = compressHash(key, keys.length);
+        int firstRemovedIndex = -1;
+        for (int probeCount = 0; probeCount < keys.length; probeCount++) {
+            if (keys[index] == FREE_KEY) {
+                break;
+            } else if (isRemoved(index)) {
+                if (firstRemovedIndex == -1) {
+                    firstRemovedIndex = index;
+                }
+            } else if (keys[index] == key) {
+                int oldValue = values[index];
+                values[index] = value;
+                return oldValue;
+            }
+            index++;
+            if (index == keys.length) {
+                index = 0;
+            }
+        }
+        if (firstRemovedIndex != -1) {
+            index = firstRemovedIndex;
+            setRemoved(index, false);
+            removedCount--;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return 0;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public int remove(int key) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                throw new NoSuchElementException("Cannot remove entry which is"
+                        + " not in HashMap");
+            }
+            int removedValue = freeKeyValue;
+            hasFreeKey = false;
+            freeKeyValue = 0;
+            size--;
+            return removedValue;
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("Cannot remove entry which is"
+                    + " not in HashMap");
+        }
+        setRemoved(index, true);
+        size--;
+        removedCount++;
+        return values[index];
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public int get(int key) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                throw new NoSuchElementException("No element with this key in"
+                        + " HashMap");
+            }
+            return freeKeyValue;
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("No element with this key in"
+                    + " HashMap");
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+        return findIndex(key) != -1;
+    }
+
+    /**
+     * Resize the backing arrays to {@code length}, disregarding the load
+     * factor. Removed slots are dropped.
+     *
+     * @param length new length of the backing arrays
+     * @throws IllegalArgumentException if length is not greater than the
+     * number of items in the table
+     */
+    public void resizeBackingTable(int length) {
+        int tableSize = hasFreeKey ? size - 1 : size;
+        if (length <= tableSize) {
+            throw new IllegalArgumentException("Cannot resize to less than"
+                    + " or equal to HashMap size.");
+        }
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        long[] oldRemoved = removed;
+        allocate(length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY
+                    && (oldRemoved[i >>> 6] & (1L << i)) == 0) {
+                int index = compressHash(oldKeys[i], keys.length);
+                while (keys[index] != FREE_KEY) {
+                    index++;
+                    if (index == keys.length) {
+                        index = 0;
+                    }
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Clears the map and resets the backing arrays to
+     * {@code INITIAL_CAPACITY}.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+        hasFreeKey = false;
+        freeKeyValue = 0;
+    }
+
+    /**
+     * Private helper method to find the slot holding the given key, which
+     * must not be {@code FREE_KEY}.
+     *
+     * @param key the key to search for
+     * @return the index of the key, or -1 if the key is not in the table
+     */
+    private int findIndex(int key) {
+        int index = compressHash(key, keys.length);
+        for (int probeCount = 0; probeCount < keys.length; probeCount++) {
+            if (keys[index] == FREE_KEY) {
+                return -1;
+            } else if (keys[index] == key && !isRemoved(index)) {
+                return index;
+            }
+            index++;
+            if (index == keys.length) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Private helper method to check the removed bit of a slot.
+     *
+     * @param index the slot to check
+     * @return whether the slot holds a removed entry
+     */
+    private boolean isRemoved(int index) {
+        return (removed[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Private helper method to set or clear the removed bit of a slot.
+     *
+     * @param index the slot to update
+     * @param isRemoved whether the slot holds a removed entry
+     */
+    private void setRemoved(int index, boolean isRemoved) {
+        if (isRemoved) {
+            removed[index >>> 6] |= 1L << index;
+        } else {
+            removed[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Private helper method to replace the backing arrays with empty arrays
+     * of the given length.
+     *
+     * @param length the new length of the backing arrays
+     */
+    private void allocate(int length) {
+        keys = new int[length];
+        values = new int[length];
+        removed = new long[(length + 63) >>> 6];
+        removedCount = 0;
+    }
+
+    /**
+     * Private helper method to get the positive compressed hash of a key
+     * based on the table length.
+     *
+     * @param key the key to be compressed for a table
+     * @param tableLength the length of the table
+     * @return the compressed hash
+     */
+    private int compressHash(int key, int tableLength) {
+        int compressedHash = key % tableLength;
+        if (compressedHash < 0) {
+            return -1 * compressedHash;
+        }
+        return compressedHash;
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size;
+    }
+
+}
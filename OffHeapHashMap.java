@@ -0,0 +1,560 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of a linear probing HashMap whose table lives in a
+ * memory-mapped file instead of on the Java heap.
+ *
+ * Keys and values are stored at fixed widths through
+ * {@code FixedWidthSerializer}s, so each slot is a state byte followed by
+ * the key bytes and the value bytes. The file starts with a header holding
+ * the widths, capacity, size and removed count, so opening an existing file
+ * serves {@code get} straight from the mapping without reloading anything.
+ * Tables larger than one mapping allows are split into several mappings.
+ *
+ * Probing, load factors and 2 * old length + 1 growth follow
+ * {@code HashMap}. A resize writes the new table to a sibling file and
+ * atomically moves it over the old one. Keys must have a
+ * {@code hashCode} that is the same in every process, as {@code Integer},
+ * {@code Long} and {@code String} do. Changes reach the disk when the
+ * operating system writes the pages back, or when {@code force} or
+ * {@code close} is called; a crash in the middle of a write can leave the
+ * table inconsistent. Instances are not thread-safe.
+ *
+ * Closing a file channel does not unmap its buffers: Java releases a
+ * mapping only once the buffer is garbage collected. After a resize or
+ * {@code close}, the old mappings therefore stay live, and keep the old
+ * table's pages and file space in use, until the garbage collector gets
+ * to them.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class OffHeapHashMap<K, V> implements Closeable {
+
+    public static final long INITIAL_CAPACITY = 13;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final double MAX_OCCUPIED_LOAD_FACTOR = 0.8;
+
+    private static final long MAGIC = 0x4f6666486561704dL;
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int KEY_WIDTH_OFFSET = 8;
+    private static final int VALUE_WIDTH_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 24;
+    private static final int REMOVED_COUNT_OFFSET = 32;
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+    private static final byte REMOVED = 2;
+
+    private final Path file;
+    private final FixedWidthSerializer<K> keySerializer;
+    private final FixedWidthSerializer<V> valueSerializer;
+    private final int slotWidth;
+    private final long slotsPerChunk;
+    private final ByteBuffer keyScratch;
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private MappedByteBuffer[] chunks;
+    private long capacity;
+    private long size;
+    private long removedCount;
+
+    /**
+     * Opens the map stored in {@code file}, or creates an empty map with an
+     * initial capacity of {@code INITIAL_CAPACITY} if the file does not
+     * exist.
+     *
+     * @param file the file backing the map
+     * @param keySerializer the serializer for keys
+     * @param valueSerializer the serializer for values
+     * @throws IOException if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if any argument is null, or the file
+     * is not a map with the serializers' widths
+     */
+    public OffHeapHashMap(Path file, FixedWidthSerializer<K> keySerializer,
+                          FixedWidthSerializer<V> valueSerializer)
+        throws IOException {
+        this(file, INITIAL_CAPACITY, keySerializer, valueSerializer);
+    }
+
+    /**
+     * Opens the map stored in {@code file}, or creates an empty map with the
+     * given initial capacity if the file does not exist. The capacity is
+     * ignored when opening an existing file.
+     *
+     * @param file the file backing the map
+     * @param initialCapacity initial capacity of a new table
+     * @param keySerializer the serializer for keys
+     * @param valueSerializer the serializer for values
+     * @throws IOException if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if any argument is null, the capacity
+     * is not positive, or the file is not a map with the serializers' widths
+     */
+    public OffHeapHashMap(Path file, long initialCapacity,
+                          FixedWidthSerializer<K> keySerializer,
+                          FixedWidthSerializer<V> valueSerializer)
+        throws IOException {
+        if (file == null || keySerializer == null
+                || valueSerializer == null) {
+            throw new IllegalArgumentException("File and serializers cannot"
+                    + " be null.");
+        }
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " positive.");
+        }
+        this.file = file;
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        slotWidth = 1 + keySerializer.width() + valueSerializer.width();
+        slotsPerChunk = Integer.MAX_VALUE / slotWidth;
+        keyScratch = ByteBuffer.allocate(keySerializer.width());
+        if (Files.exists(file)) {
+            open();
+        } else {
+            create(file, initialCapacity);
+            open();
+        }
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one.
+     *
+     * Follows the resize policy of {@code HashMap.put}.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @throws IOException if the table has to be resized and the new file
+     * cannot be written
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) throws IOException {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " key into HashMap.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " value into HashMap.");
+        }
+        if (((double) size + 1) / capacity > MAX_LOAD_FACTOR) {
+            resizeBackingTable(capacity * 2 + 1);
+        } else if (((double) size + removedCount + 1) / capacity
+                > MAX_OCCUPIED_LOAD_FACTOR) {
+            resizeBackingTable(capacity);
+        }
+        keySerializer.write(keyScratch, 0, key);
+        long slot = compressHash(key.hashCode(), capacity);
+        long firstRemovedSlot = -1;
+        for (long probeCount = 0; probeCount < capacity; probeCount++) {
+            byte state = state(slot);
+            if (state == EMPTY) {
+                break;
+            } else if (state == REMOVED) {
+                if (firstRemovedSlot == -1) {
+                    firstRemovedSlot = slot;
+                }
+            } else if (keyMatches(slot)) {
+                V oldValue = readValue(slot);
+                writeValue(slot, value);
+                return oldValue;
+            }
+            slot++;
+            if (slot == capacity) {
+                slot = 0;
+            }
+        }
+        if (firstRemovedSlot != -1) {
+            slot = firstRemovedSlot;
+            setRemovedCount(removedCount - 1);
+        }
+        ByteBuffer chunk = chunk(slot);
+        int offset = offset(slot);
+        keySerializer.write(chunk, offset + 1, key);
+        valueSerializer.write(chunk, offset + 1 + keySerializer.width(),
+                value);
+        chunk.put(offset, LIVE);
+        setSize(size + 1);
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot remove entry with null"
+                    + " key.");
+        }
+        long slot = findSlot(key);
+        if (slot == -1) {
+            throw new NoSuchElementException("Cannot remove entry which is"
+                    + " not in HashMap");
+        }
+        chunk(slot).put(offset(slot), REMOVED);
+        setSize(size - 1);
+        setRemovedCount(removedCount + 1);
+        return readValue(slot);
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot get entry with null"
+                    + " key.");
+        }
+        long slot = findSlot(key);
+        if (slot == -1) {
+            throw new NoSuchElementException("No element with this key in"
+                    + " HashMap");
+        }
+        return readValue(slot);
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("HashMap cannot contain null"
+                    + " keys");
+        }
+        return findSlot(key) != -1;
+    }
+
+    /**
+     * Resize the table to {@code length} slots, disregarding the load
+     * factor. The new table is written to a sibling file, flushed, and then
+     * moved over the backing file. The old file stays open until the new
+     * one is mapped, so the map is left on the old table if the move fails.
+     * Removed entries are dropped.
+     *
+     * @param length new number of slots in the table
+     * @throws IllegalArgumentException if length is not greater than the
+     * number of items in the hash map
+     * @throws IOException if the new file cannot be written or moved
+     */
+    public void resizeBackingTable(long length) throws IOException {
+        if (length <= size) {
+            throw new IllegalArgumentException("Cannot resize to less than"
+                    + " or equal to HashMap size.");
+        }
+        Path resized = file.resolveSibling(file.getFileName() + ".resize");
+        Files.deleteIfExists(resized);
+        try (OffHeapHashMap<K, V> target = new OffHeapHashMap<>(resized,
+                length, keySerializer, valueSerializer)) {
+            int keyWidth = keySerializer.width();
+            for (long slot = 0; slot < capacity; slot++) {
+                if (state(slot) == LIVE) {
+                    ByteBuffer chunk = chunk(slot);
+                    int offset = offset(slot);
+                    K key = keySerializer.read(chunk, offset + 1);
+                    long index = compressHash(key.hashCode(), length);
+                    while (target.state(index) != EMPTY) {
+                        index++;
+                        if (index == length) {
+                            index = 0;
+                        }
+                    }
+                    ByteBuffer targetChunk = target.chunk(index);
+                    int targetOffset = target.offset(index);
+                    for (int i = 1; i < slotWidth; i++) {
+                        targetChunk.put(targetOffset + i,
+                                chunk.get(offset + i));
+                    }
+                    targetChunk.put(targetOffset, LIVE);
+                }
+            }
+            target.setSize(size);
+            target.force();
+        }
+        FileChannel oldChannel = channel;
+        Files.move(resized, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        try {
+            open();
+        } finally {
+            oldChannel.close();
+        }
+    }
+
+    /**
+     * Clears the map and resets the table to {@code INITIAL_CAPACITY}.
+     *
+     * @throws IOException if the file cannot be rewritten
+     */
+    public void clear() throws IOException {
+        close();
+        create(file, INITIAL_CAPACITY);
+        open();
+    }
+
+    /**
+     * Writes every change made through the mapping back to the file.
+     */
+    public void force() {
+        header.force();
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    /**
+     * Flushes the map to its file and closes the file. The map must not be
+     * used afterwards.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            force();
+            channel.close();
+            channel = null;
+            header = null;
+            chunks = null;
+        }
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return the capacity of the table
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Private helper method to write the header and size the file for an
+     * empty table. Any existing file is replaced.
+     *
+     * @param target the file to create
+     * @param length the number of slots in the table
+     * @throws IOException if the file cannot be written
+     */
+    private void create(Path target, long length) throws IOException {
+        try (FileChannel newChannel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer newHeader = ByteBuffer.allocate(HEADER_SIZE);
+            newHeader.putLong(MAGIC_OFFSET, MAGIC);
+            newHeader.putInt(KEY_WIDTH_OFFSET, keySerializer.width());
+            newHeader.putInt(VALUE_WIDTH_OFFSET, valueSerializer.width());
+            newHeader.putLong(CAPACITY_OFFSET, length);
+            newChannel.write(newHeader, 0);
+            newChannel.write(ByteBuffer.allocate(1),
+                    HEADER_SIZE + length * slotWidth - 1);
+        }
+    }
+
+    /**
+     * Private helper method to map the header and table of the backing file
+     * and read the header.
+     *
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if the file does not hold a map with
+     * the serializers' widths
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (header.getLong(MAGIC_OFFSET) != MAGIC
+                || header.getInt(KEY_WIDTH_OFFSET) != keySerializer.width()
+                || header.getInt(VALUE_WIDTH_OFFSET)
+                    != valueSerializer.width()) {
+            channel.close();
+            channel = null;
+            throw new IllegalArgumentException(file + " is not a HashMap"
+                    + " file with matching key and value widths.");
+        }
+        capacity = header.getLong(CAPACITY_OFFSET);
+        size = header.getLong(SIZE_OFFSET);
+        removedCount = header.getLong(REMOVED_COUNT_OFFSET);
+        int chunkCount = (int) ((capacity + slotsPerChunk - 1)
+                / slotsPerChunk);
+        chunks = new MappedByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            long firstSlot = i * slotsPerChunk;
+            long slots = Math.min(slotsPerChunk, capacity - firstSlot);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_SIZE + firstSlot * slotWidth, slots * slotWidth);
+        }
+    }
+
+    /**
+     * Private helper method to find the slot holding the live entry with the
+     * given key.
+     *
+     * @param key the key to search for
+     * @return the slot of the key, or -1 if the key is not in the map
+     */
+    private long findSlot(K key) {
+        keySerializer.write(keyScratch, 0, key);
+        long slot = compressHash(key.hashCode(), capacity);
+        for (long probeCount = 0; probeCount < capacity; probeCount++) {
+            byte state = state(slot);
+            if (state == EMPTY) {
+                return -1;
+            } else if (state == LIVE && keyMatches(slot)) {
+                return slot;
+            }
+            slot++;
+            if (slot == capacity) {
+                slot = 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Private helper method to compare the key bytes of a slot with the key
+     * last serialized into the scratch buffer.
+     *
+     * @param slot the slot to compare
+     * @return whether the slot holds the scratch key
+     */
+    private boolean keyMatches(long slot) {
+        ByteBuffer chunk = chunk(slot);
+        int offset = offset(slot) + 1;
+        for (int i = 0; i < keyScratch.capacity(); i++) {
+            if (chunk.get(offset + i) != keyScratch.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Private helper method to read the state byte of a slot.
+     *
+     * @param slot the slot to read
+     * @return the state of the slot
+     */
+    private byte state(long slot) {
+        return chunk(slot).get(offset(slot));
+    }
+
+    /**
+     * Private helper method to read the value of a slot.
+     *
+     * @param slot the slot to read
+     * @return the value stored in the slot
+     */
+    private V readValue(long slot) {
+        return valueSerializer.read(chunk(slot),
+                offset(slot) + 1 + keySerializer.width());
+    }
+
+    /**
+     * Private helper method to write the value of a slot.
+     *
+     * @param slot the slot to write
+     * @param value the value to store in the slot
+     */
+    private void writeValue(long slot, V value) {
+        valueSerializer.write(chunk(slot),
+                offset(slot) + 1 + keySerializer.width(), value);
+    }
+
+    /**
+     * Private helper method to get the mapping that holds a slot.
+     *
+     * @param slot the slot to locate
+     * @return the mapping holding the slot
+     */
+    private ByteBuffer chunk(long slot) {
+        return chunks[(int) (slot / slotsPerChunk)];
+    }
+
+    /**
+     * Private helper method to get the offset of a slot in its mapping.
+     *
+     * @param slot the slot to locate
+     * @return the byte offset of the slot's state byte
+     */
+    private int offset(long slot) {
+        return (int) (slot % slotsPerChunk) * slotWidth;
+    }
+
+    /**
+     * Private helper method to update the size in memory and in the header.
+     *
+     * @param newSize the new size of the map
+     */
+    private void setSize(long newSize) {
+        size = newSize;
+        header.putLong(SIZE_OFFSET, newSize);
+    }
+
+    /**
+     * Private helper method to update the removed count in memory and in the
+     * header.
+     *
+     * @param newRemovedCount the new number of removed slots
+     */
+    private void setRemovedCount(long newRemovedCount) {
+        removedCount = newRemovedCount;
+        header.putLong(REMOVED_COUNT_OFFSET, newRemovedCount);
+    }
+
+    /**
+     * Private helper method to get the positive compressed hash of a hash code
+     * based on the table length.
+     *
+     * @param hashCode the hash code to be compressed for a table
+     * @param tableLength the length of the table for which the hash code will
+     *                    be compressed
+     * @return the compressed hashcode
+     */
+    private static long compressHash(int hashCode, long tableLength) {
+        long compressedHash = hashCode % tableLength;
+        if (compressedHash < 0) {
+            return -1 * compressedHash;
+        }
+        return compressedHash;
+    }
+
+}
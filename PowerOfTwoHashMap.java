@@ -0,0 +1,381 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Implementation of a linear probing HashMap whose backing table length is
+ * always a power of two.
+ *
+ * Hash codes are spread with the MurmurHash3 finalizer so the high bits of
+ * the hash code influence the low bits, and the table index is taken with a
+ * mask instead of the {@code %} used by {@code HashMap}. The maximum load
+ * factor and the growth factor of the table are configurable.
+ *
+ * As in {@code HashMap}, removed entries are cleared out by rebuilding the
+ * table at the same length once live and removed entries together would
+ * fill more than the occupied load factor of the table, which is
+ * {@code MAX_OCCUPIED_LOAD_FACTOR} or halfway between the max load factor
+ * and 1, whichever is larger.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class PowerOfTwoHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final double MAX_OCCUPIED_LOAD_FACTOR = 0.8;
+    public static final int GROWTH_FACTOR = 2;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private final double maxLoadFactor;
+    private final double occupiedLoadFactor;
+    private final int growthFactor;
+    private MapEntry<K, V>[] table;
+    private int size;
+    private int removedCount;
+
+    /**
+     * Create a hash map with no entries. The backing array has an initial
+     * capacity of {@code INITIAL_CAPACITY}.
+     */
+    public PowerOfTwoHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a hash map with no entries. The backing array has a capacity of
+     * {@code initialCapacity} rounded up to the next power of two.
+     *
+     * @param initialCapacity initial capacity of the backing array
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public PowerOfTwoHashMap(int initialCapacity) {
+        this(initialCapacity, MAX_LOAD_FACTOR, GROWTH_FACTOR);
+    }
+
+    /**
+     * Create a hash map with no entries and the given resize policy.
+     *
+     * The backing array has a capacity of {@code initialCapacity} rounded up
+     * to the next power of two. Whenever adding an entry would push the load
+     * factor above {@code maxLoadFactor}, the backing array is grown to
+     * {@code growthFactor} times its current length.
+     *
+     * @param initialCapacity initial capacity of the backing array
+     * @param maxLoadFactor the load factor that triggers a resize
+     * @param growthFactor the multiplier applied to the length on a resize
+     * @throws IllegalArgumentException if initialCapacity is not positive,
+     * maxLoadFactor is not in (0, 1) or growthFactor is not a power of two
+     * greater than 1
+     */
+    public PowerOfTwoHashMap(int initialCapacity, double maxLoadFactor,
+                             int growthFactor) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " positive.");
+        }
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1)) {
+            throw new IllegalArgumentException("Max load factor must be"
+                    + " between 0 and 1.");
+        }
+        if (growthFactor < 2 || Integer.bitCount(growthFactor) != 1) {
+            throw new IllegalArgumentException("Growth factor must be a power"
+                    + " of two greater than 1.");
+        }
+        this.maxLoadFactor = maxLoadFactor;
+        occupiedLoadFactor = Math.max(MAX_OCCUPIED_LOAD_FACTOR,
+                (1 + maxLoadFactor) / 2);
+        this.growthFactor = growthFactor;
+        table = new MapEntry[tableSizeFor(initialCapacity)];
+        size = 0;
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one.
+     *
+     * Before anything else, the table is grown if adding the entry would
+     * violate the max load factor (regardless of duplicates), or rebuilt at
+     * the same length if live and removed entries together would exceed
+     * the occupied load factor.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " key into HashMap.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " value into HashMap.");
+        }
+        if (((double) size + 1) / table.length > maxLoadFactor) {
+            resizeBackingTable(growCapacity(table.length));
+        } else if (((double) size + removedCount + 1) / table.length
+                > occupiedLoadFactor) {
+            resizeBackingTable(table.length);
+        }
+        int mask = table.length - 1;
+        int index = spread(key.hashCode()) & mask;
+        int firstRemovedIndex = -1;
+        for (int probeCount = 0; probeCount < table.length; probeCount++) {
+            MapEntry<K, V> probeEntry = table[index];
+            if (probeEntry == null) {
+                break;
+            } else if (probeEntry.isRemoved()) {
+                if (firstRemovedIndex == -1) {
+                    firstRemovedIndex = index;
+                }
+            } else if (probeEntry.getKey().equals(key)) {
+                V oldValue = probeEntry.getValue();
+                probeEntry.setValue(value);
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+        if (firstRemovedIndex != -1) {
+            index = firstRemovedIndex;
+            removedCount--;
+        }
+        table[index] = new MapEntry<>(key, value);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot remove entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("Cannot remove entry which is"
+                    + " not in HashMap");
+        }
+        MapEntry<K, V> entry = table[index];
+        entry.setRemoved(true);
+        size--;
+        removedCount++;
+        return entry.getValue();
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot get entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("No element with this key in"
+                    + " HashMap");
+        }
+        return table[index].getValue();
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("HashMap cannot contain null"
+                    + " keys");
+        }
+        return findIndex(key) != -1;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keyHashSet = new HashSet<>();
+        for (int i = 0, added = 0; added < size; i++) {
+            if (table[i] != null && !table[i].isRemoved()) {
+                keyHashSet.add(table[i].getKey());
+                added++;
+            }
+        }
+        return keyHashSet;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map, in order of
+     * increasing table index.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        ArrayList<V> valueList = new ArrayList<>(size);
+        for (int i = 0, added = 0; added < size; i++) {
+            if (table[i] != null && !table[i].isRemoved()) {
+                valueList.add(table[i].getValue());
+                added++;
+            }
+        }
+        return valueList;
+    }
+
+    /**
+     * Resize the backing table to {@code length} rounded up to the next power
+     * of two, disregarding the load factor. Removed entries are dropped.
+     *
+     * @param length new minimum length of the backing table
+     * @throws IllegalArgumentException if length is less than the number of
+     * items in the hash map
+     */
+    public void resizeBackingTable(int length) {
+        if (length < size) {
+            throw new IllegalArgumentException("Cannot resize to less than"
+                    + " HashMap size.");
+        }
+        MapEntry<K, V>[] resizedTable = new MapEntry[tableSizeFor(length)];
+        int mask = resizedTable.length - 1;
+        for (int i = 0, added = 0; added < size; i++) {
+            MapEntry<K, V> entry = table[i];
+            if (entry != null && !entry.isRemoved()) {
+                int index = spread(entry.getKey().hashCode()) & mask;
+                while (resizedTable[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                resizedTable[index] = entry;
+                added++;
+            }
+        }
+        table = resizedTable;
+        removedCount = 0;
+    }
+
+    /**
+     * Clears the table and resets it to {@code INITIAL_CAPACITY}.
+     */
+    public void clear() {
+        table = new MapEntry[INITIAL_CAPACITY];
+        size = 0;
+        removedCount = 0;
+    }
+
+    /**
+     * Private helper method to find the table index of the live entry with
+     * the given key.
+     *
+     * @param key the key to search for
+     * @return the index of the entry, or -1 if the key is not in the map
+     */
+    private int findIndex(K key) {
+        int mask = table.length - 1;
+        int index = spread(key.hashCode()) & mask;
+        for (int probeCount = 0; probeCount < table.length; probeCount++) {
+            MapEntry<K, V> probeEntry = table[index];
+            if (probeEntry == null) {
+                return -1;
+            } else if (!probeEntry.isRemoved()
+                    && probeEntry.getKey().equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Private helper method to compute the next table length under the
+     * configured growth factor.
+     *
+     * @param length the current table length
+     * @return the grown table length
+     */
+    private int growCapacity(int length) {
+        if (length >= MAXIMUM_CAPACITY / growthFactor) {
+            if (length == MAXIMUM_CAPACITY) {
+                throw new IllegalStateException("HashMap cannot grow past "
+                        + MAXIMUM_CAPACITY + " slots.");
+            }
+            return MAXIMUM_CAPACITY;
+        }
+        return length * growthFactor;
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits using the
+     * MurmurHash3 32-bit finalizer, so that masking off the low bits still
+     * depends on the whole hash code.
+     *
+     * @param hashCode the hash code to spread
+     * @return the spread hash code
+     */
+    static int spread(int hashCode) {
+        int h = hashCode;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Returns the smallest power of two that is at least {@code capacity}.
+     *
+     * @param capacity the requested capacity
+     * @return the power of two table length
+     */
+    static int tableSizeFor(int capacity) {
+        if (capacity <= 1) {
+            return 1;
+        }
+        if (capacity > MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of the map, not a copy.
+     *
+     * @return the backing array of the map
+     */
+    public MapEntry<K, V>[] getTable() {
+        return table;
+    }
+
+}
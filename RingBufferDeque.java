@@ -0,0 +1,202 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of an array deque whose capacity is always a power of two.
+ *
+ * Has the same contract as {@code ArrayDeque}, but because the capacity is
+ * a power of two, wrapping an index around the backing array is a single
+ * {@code & (capacity - 1)} instead of a remainder and a sign fix. Growing
+ * copies the two contiguous runs of the old array with two bulk copies
+ * instead of moving the elements one by one.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class RingBufferDeque<T> {
+
+    /**
+     * The initial capacity of the RingBufferDeque.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The largest power of two capacity an array can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private T[] backingArray;
+    private int front;
+    private int back;
+    private int size;
+
+    /**
+     * Constructs a new RingBufferDeque with an initial capacity of
+     * the {@code INITIAL_CAPACITY} constant above.
+     */
+    public RingBufferDeque() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs a new RingBufferDeque with an initial capacity of
+     * {@code initialCapacity} rounded up to the next power of two.
+     *
+     * @param initialCapacity the minimum initial capacity
+     * @throws java.lang.IllegalArgumentException if initialCapacity is not
+     * positive or larger than {@code 2^30}
+     */
+    public RingBufferDeque(int initialCapacity) {
+        if (initialCapacity <= 0 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " between 1 and 2^30.");
+        }
+        backingArray = (T[]) new Object[powerOfTwoFor(initialCapacity)];
+        front = 0;
+        back = 0;
+        size = 0;
+    }
+
+    /**
+     * Adds the data to the front of the deque, doubling the backing array
+     * first if it is full.
+     *
+     * This method must run in amortized O(1) time.
+     *
+     * @param data the data to add to the deque
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void addFirst(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot add null data to"
+                    + " RingBufferDeque");
+        }
+        if (size == backingArray.length) {
+            grow();
+        }
+        front = (front - 1) & (backingArray.length - 1);
+        backingArray[front] = data;
+        size++;
+    }
+
+    /**
+     * Adds the data to the back of the deque, doubling the backing array
+     * first if it is full.
+     *
+     * This method must run in amortized O(1) time.
+     *
+     * @param data the data to add to the deque
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void addLast(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot add null data to"
+                    + " RingBufferDeque");
+        }
+        if (size == backingArray.length) {
+            grow();
+        }
+        backingArray[back] = data;
+        back = (back + 1) & (backingArray.length - 1);
+        size++;
+    }
+
+    /**
+     * Removes the data at the front of the deque. The backing array is not
+     * shrunk.
+     *
+     * This method must run in O(1) time.
+     *
+     * @return the data formerly at the front of the deque
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    public T removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Cannot remove from an empty"
+                    + " RingBufferDeque");
+        }
+        T removedData = backingArray[front];
+        backingArray[front] = null;
+        front = (front + 1) & (backingArray.length - 1);
+        size--;
+        return removedData;
+    }
+
+    /**
+     * Removes the data at the back of the deque. The backing array is not
+     * shrunk.
+     *
+     * This method must run in O(1) time.
+     *
+     * @return the data formerly at the back of the deque
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    public T removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("Cannot remove from an empty"
+                    + " RingBufferDeque");
+        }
+        back = (back - 1) & (backingArray.length - 1);
+        T removedData = backingArray[back];
+        backingArray[back] = null;
+        size--;
+        return removedData;
+    }
+
+    /**
+     * Returns the number of elements in the deque.
+     *
+     * Runs in O(1) for all cases.
+     *
+     * @return the size of the deque
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of this deque, not a copy.
+     *
+     * @return the backing array
+     */
+    public T[] getBackingArray() {
+        return backingArray;
+    }
+
+    /**
+     * Private helper method to double the backing array of a full deque.
+     * The run from front to the end of the old array and the wrapped run
+     * from the start of the old array to back are copied with one bulk copy
+     * each, so the front of the deque ends up at index 0.
+     *
+     * @throws java.lang.IllegalStateException if the deque is already at
+     * the largest supported capacity
+     */
+    private void grow() {
+        if (backingArray.length == MAX_CAPACITY) {
+            throw new IllegalStateException("RingBufferDeque cannot grow past"
+                    + " 2^30 elements.");
+        }
+        T[] newBackingArray = (T[]) new Object[backingArray.length * 2];
+        int frontRun = backingArray.length - front;
+        System.arraycopy(backingArray, front, newBackingArray, 0, frontRun);
+        System.arraycopy(backingArray, 0, newBackingArray, frontRun, front);
+        backingArray = newBackingArray;
+        front = 0;
+        back = size;
+    }
+
+    /**
+     * Private helper method to round a capacity up to a power of two.
+     *
+     * @param capacity a capacity between 1 and {@code MAX_CAPACITY}
+     * @return the smallest power of two that is at least capacity
+     */
+    private static int powerOfTwoFor(int capacity) {
+        if (capacity == 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
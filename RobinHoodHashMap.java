@@ -0,0 +1,358 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Implementation of a HashMap using Robin Hood linear probing.
+ *
+ * Every slot remembers how far its entry sits from its home index. On
+ * insertion, an entry that has probed further than the resident of a slot
+ * takes that slot and the resident continues probing, which keeps probe
+ * lengths close to the average. Removal shifts the following entries of the
+ * cluster back by one instead of leaving a removed marker, so the table
+ * never contains tombstones, and a lookup can stop as soon as it reaches a
+ * slot whose entry is closer to home than the probe so far.
+ *
+ * The backing table length is always a power of two.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class RobinHoodHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.9;
+    private static final int EMPTY = -1;
+
+    private final double maxLoadFactor;
+    private K[] keys;
+    private V[] values;
+    private int[] distances;
+    private int size;
+
+    /**
+     * Create a hash map with no entries. The backing arrays have an initial
+     * capacity of {@code INITIAL_CAPACITY}.
+     */
+    public RobinHoodHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a hash map with no entries. The backing arrays have a capacity
+     * of {@code initialCapacity} rounded up to the next power of two.
+     *
+     * @param initialCapacity initial capacity of the backing arrays
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public RobinHoodHashMap(int initialCapacity) {
+        this(initialCapacity, MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * Create a hash map with no entries that doubles its backing arrays
+     * whenever adding an entry would push the load factor above
+     * {@code maxLoadFactor}.
+     *
+     * @param initialCapacity initial capacity of the backing arrays
+     * @param maxLoadFactor the load factor that triggers a resize
+     * @throws IllegalArgumentException if initialCapacity is not positive or
+     * maxLoadFactor is not in (0, 1)
+     */
+    public RobinHoodHashMap(int initialCapacity, double maxLoadFactor) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " positive.");
+        }
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1)) {
+            throw new IllegalArgumentException("Max load factor must be"
+                    + " between 0 and 1.");
+        }
+        this.maxLoadFactor = maxLoadFactor;
+        allocate(PowerOfTwoHashMap.tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one.
+     *
+     * Before anything else, the table is doubled if adding the entry would
+     * violate the max load factor (regardless of duplicates).
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " key into HashMap.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " value into HashMap.");
+        }
+        if (((double) size + 1) / keys.length > maxLoadFactor) {
+            resizeBackingTable(keys.length * 2);
+        }
+        int index = findIndex(key);
+        if (index != -1) {
+            V oldValue = values[index];
+            values[index] = value;
+            return oldValue;
+        }
+        insert(key, value);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map, shifting the rest
+     * of its cluster back so no removed marker is left behind.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot remove entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("Cannot remove entry which is"
+                    + " not in HashMap");
+        }
+        V removedValue = values[index];
+        int mask = keys.length - 1;
+        int next = (index + 1) & mask;
+        while (distances[next] > 0) {
+            keys[index] = keys[next];
+            values[index] = values[next];
+            distances[index] = distances[next] - 1;
+            index = next;
+            next = (next + 1) & mask;
+        }
+        keys[index] = null;
+        values[index] = null;
+        distances[index] = EMPTY;
+        size--;
+        return removedValue;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot get entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("No element with this key in"
+                    + " HashMap");
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("HashMap cannot contain null"
+                    + " keys");
+        }
+        return findIndex(key) != -1;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keyHashSet = new HashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (distances[i] != EMPTY) {
+                keyHashSet.add(keys[i]);
+            }
+        }
+        return keyHashSet;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map, in order of
+     * increasing table index.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        ArrayList<V> valueList = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (distances[i] != EMPTY) {
+                valueList.add(values[i]);
+            }
+        }
+        return valueList;
+    }
+
+    /**
+     * Resize the backing arrays to {@code length} rounded up to the next
+     * power of two, disregarding the load factor.
+     *
+     * @param length new minimum length of the backing arrays
+     * @throws IllegalArgumentException if length is not greater than the
+     * number of items in the hash map
+     */
+    public void resizeBackingTable(int length) {
+        if (length <= size) {
+            throw new IllegalArgumentException("Cannot resize to less than"
+                    + " or equal to HashMap size.");
+        }
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldDistances = distances;
+        allocate(PowerOfTwoHashMap.tableSizeFor(length));
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldDistances[i] != EMPTY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Clears the table and resets it to {@code INITIAL_CAPACITY}.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Returns the average number of slots a successful lookup of a key
+     * currently in the map has to inspect.
+     *
+     * @return the average probe length, or 0 if the map is empty
+     */
+    public double averageProbeLength() {
+        if (size == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int distance : distances) {
+            if (distance != EMPTY) {
+                total += distance + 1;
+            }
+        }
+        return (double) total / size;
+    }
+
+    /**
+     * Returns the largest number of slots a successful lookup of a key
+     * currently in the map has to inspect. Unsuccessful lookups stop within
+     * one slot of this bound.
+     *
+     * @return the maximum probe length, or 0 if the map is empty
+     */
+    public int maxProbeLength() {
+        int max = EMPTY;
+        for (int distance : distances) {
+            max = Math.max(max, distance);
+        }
+        return max + 1;
+    }
+
+    /**
+     * Private helper method to find the slot holding the given key. The
+     * probe stops early once it passes the point where the key would have
+     * displaced a resident.
+     *
+     * @param key the key to search for
+     * @return the index of the key, or -1 if the key is not in the map
+     */
+    private int findIndex(K key) {
+        int mask = keys.length - 1;
+        int index = PowerOfTwoHashMap.spread(key.hashCode()) & mask;
+        for (int distance = 0; distance <= distances[index]; distance++) {
+            if (keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Private helper method to insert a key that is known not to be in the
+     * map, swapping with any resident that is closer to its home slot.
+     *
+     * @param key the key to insert
+     * @param value the value to insert
+     */
+    private void insert(K key, V value) {
+        int mask = keys.length - 1;
+        int index = PowerOfTwoHashMap.spread(key.hashCode()) & mask;
+        int distance = 0;
+        while (distances[index] != EMPTY) {
+            if (distances[index] < distance) {
+                K displacedKey = keys[index];
+                V displacedValue = values[index];
+                int displacedDistance = distances[index];
+                keys[index] = key;
+                values[index] = value;
+                distances[index] = distance;
+                key = displacedKey;
+                value = displacedValue;
+                distance = displacedDistance;
+            }
+            index = (index + 1) & mask;
+            distance++;
+        }
+        keys[index] = key;
+        values[index] = value;
+        distances[index] = distance;
+    }
+
+    /**
+     * Private helper method to replace the backing arrays with empty arrays
+     * of the given length.
+     *
+     * @param length the new length of the backing arrays
+     */
+    private void allocate(int length) {
+        keys = (K[]) new Object[length];
+        values = (V[]) new Object[length];
+        distances = new int[length];
+        Arrays.fill(distances, EMPTY);
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size;
+    }
+
+}
@@ -0,0 +1,366 @@
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Implementation of a linear probing HashMap that resists hash flooding.
+ *
+ * Every instance draws a random seed that is mixed into the hash of each
+ * key, so an attacker cannot precompute keys that share a cluster. For
+ * {@code CharSequence} keys the hash is computed from the characters and
+ * the seed rather than from {@code hashCode}, because strings with equal
+ * hash codes are easy to generate.
+ *
+ * The protection covers strings only. Other keys are hashed by mixing the
+ * seed into {@code hashCode}. That separates keys whose hash codes differ
+ * but happen to share a slot, but keys with equal hash codes land in the
+ * same slot under every seed. Re-seeding therefore cannot break up a flood
+ * of non-string keys with equal hash codes, and such keys should not come
+ * from untrusted input.
+ *
+ * If a {@code put} has to inspect more than {@code PROBE_LIMIT} slots, the
+ * map draws a new seed and rehashes. At most {@code MAX_RESEEDS} re-seeds
+ * happen between two resizes, so keys that collide under every seed cannot
+ * make the map rehash on every insertion.
+ *
+ * The seeded string hash is a multiplicative mix, not a keyed
+ * cryptographic function such as SipHash.
+ *
+ * As in {@code HashMap}, removed entries are cleared out by rehashing at
+ * the same length once live and removed entries together would exceed
+ * {@code MAX_OCCUPIED_LOAD_FACTOR}, so heavy churn does not leave every
+ * probe walking a table full of removed entries.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class SeededHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final double MAX_OCCUPIED_LOAD_FACTOR = 0.8;
+    public static final int PROBE_LIMIT = 128;
+    public static final int MAX_RESEEDS = 2;
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+
+    private MapEntry<K, V>[] table;
+    private int size;
+    private int removedCount;
+    private int seed;
+    private int reseedsSinceResize;
+    private long reseedCount;
+
+    /**
+     * Create a hash map with no entries. The backing array has an initial
+     * capacity of {@code INITIAL_CAPACITY}.
+     */
+    public SeededHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a hash map with no entries. The backing array has a capacity of
+     * {@code initialCapacity} rounded up to the next power of two.
+     *
+     * @param initialCapacity initial capacity of the backing array
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public SeededHashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " positive.");
+        }
+        table = new MapEntry[PowerOfTwoHashMap.tableSizeFor(initialCapacity)];
+        seed = SEED_SOURCE.nextInt();
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one.
+     *
+     * Before anything else, the table is doubled if adding the entry would
+     * violate the max load factor (regardless of duplicates), or rehashed at
+     * the same length if live and removed entries together would exceed
+     * {@code MAX_OCCUPIED_LOAD_FACTOR}. If the probe for the key is longer
+     * than {@code PROBE_LIMIT}, the map is re-seeded after the entry is
+     * added.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " key into HashMap.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " value into HashMap.");
+        }
+        if (((double) size + 1) / table.length > MAX_LOAD_FACTOR) {
+            resizeBackingTable(table.length * 2);
+        } else if (((double) size + removedCount + 1) / table.length
+                > MAX_OCCUPIED_LOAD_FACTOR) {
+            rehash(table.length);
+        }
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        int firstRemovedIndex = -1;
+        int probeCount = 0;
+        for (; probeCount < table.length; probeCount++) {
+            MapEntry<K, V> probeEntry = table[index];
+            if (probeEntry == null) {
+                break;
+            } else if (probeEntry.isRemoved()) {
+                if (firstRemovedIndex == -1) {
+                    firstRemovedIndex = index;
+                }
+            } else if (probeEntry.getKey().equals(key)) {
+                V oldValue = probeEntry.getValue();
+                probeEntry.setValue(value);
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+        if (firstRemovedIndex != -1) {
+            index = firstRemovedIndex;
+            removedCount--;
+        }
+        table[index] = new MapEntry<>(key, value);
+        size++;
+        if (probeCount > PROBE_LIMIT && reseedsSinceResize < MAX_RESEEDS) {
+            reseedsSinceResize++;
+            reseedCount++;
+            seed = SEED_SOURCE.nextInt();
+            rehash(table.length);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot remove entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("Cannot remove entry which is"
+                    + " not in HashMap");
+        }
+        MapEntry<K, V> entry = table[index];
+        entry.setRemoved(true);
+        size--;
+        removedCount++;
+        return entry.getValue();
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot get entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key);
+        if (index == -1) {
+            throw new NoSuchElementException("No element with this key in"
+                    + " HashMap");
+        }
+        return table[index].getValue();
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("HashMap cannot contain null"
+                    + " keys");
+        }
+        return findIndex(key) != -1;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keyHashSet = new HashSet<>();
+        for (int i = 0, added = 0; added < size; i++) {
+            if (table[i] != null && !table[i].isRemoved()) {
+                keyHashSet.add(table[i].getKey());
+                added++;
+            }
+        }
+        return keyHashSet;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map, in order of
+     * increasing table index.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        ArrayList<V> valueList = new ArrayList<>(size);
+        for (int i = 0, added = 0; added < size; i++) {
+            if (table[i] != null && !table[i].isRemoved()) {
+                valueList.add(table[i].getValue());
+                added++;
+            }
+        }
+        return valueList;
+    }
+
+    /**
+     * Resize the backing table to {@code length} rounded up to the next power
+     * of two, disregarding the load factor. Removed entries are dropped, and
+     * the map may be re-seeded again afterwards.
+     *
+     * @param length new minimum length of the backing table
+     * @throws IllegalArgumentException if length is less than the number of
+     * items in the hash map
+     */
+    public void resizeBackingTable(int length) {
+        if (length < size) {
+            throw new IllegalArgumentException("Cannot resize to less than"
+                    + " HashMap size.");
+        }
+        rehash(PowerOfTwoHashMap.tableSizeFor(length));
+        reseedsSinceResize = 0;
+    }
+
+    /**
+     * Clears the table and resets it to {@code INITIAL_CAPACITY} with a new
+     * seed.
+     */
+    public void clear() {
+        table = new MapEntry[INITIAL_CAPACITY];
+        size = 0;
+        removedCount = 0;
+        seed = SEED_SOURCE.nextInt();
+        reseedsSinceResize = 0;
+    }
+
+    /**
+     * Returns the number of times the map re-seeded itself after a long
+     * probe.
+     *
+     * @return the re-seed count
+     */
+    public long getReseedCount() {
+        return reseedCount;
+    }
+
+    /**
+     * Private helper method to move every live entry into a new table of
+     * the given power of two length, hashed with the current seed, which
+     * drops every removed entry.
+     *
+     * @param length the length of the new table
+     */
+    private void rehash(int length) {
+        MapEntry<K, V>[] resizedTable = new MapEntry[length];
+        int mask = length - 1;
+        for (int i = 0, added = 0; added < size; i++) {
+            MapEntry<K, V> entry = table[i];
+            if (entry != null && !entry.isRemoved()) {
+                int index = hash(entry.getKey()) & mask;
+                while (resizedTable[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                resizedTable[index] = entry;
+                added++;
+            }
+        }
+        table = resizedTable;
+        removedCount = 0;
+    }
+
+    /**
+     * Private helper method to find the table index of the live entry with
+     * the given key.
+     *
+     * @param key the key to search for
+     * @return the index of the entry, or -1 if the key is not in the map
+     */
+    private int findIndex(K key) {
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        for (int probeCount = 0; probeCount < table.length; probeCount++) {
+            MapEntry<K, V> probeEntry = table[index];
+            if (probeEntry == null) {
+                return -1;
+            } else if (!probeEntry.isRemoved()
+                    && probeEntry.getKey().equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Private helper method to hash a key with the current seed.
+     *
+     * @param key the key to hash
+     * @return the seeded hash of the key
+     */
+    private int hash(K key) {
+        if (key instanceof CharSequence) {
+            CharSequence chars = (CharSequence) key;
+            int h = seed ^ chars.length();
+            for (int i = 0; i < chars.length(); i++) {
+                h = Integer.rotateLeft((h ^ chars.charAt(i)) * 0x9e3779b1, 15);
+            }
+            return PowerOfTwoHashMap.spread(h ^ seed);
+        }
+        return PowerOfTwoHashMap.spread(key.hashCode() ^ seed);
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the backing array of the map, not a copy.
+     *
+     * @return the backing array of the map
+     */
+    public MapEntry<K, V>[] getTable() {
+        return table;
+    }
+
+}
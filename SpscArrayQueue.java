@@ -0,0 +1,337 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of a bounded single-producer single-consumer queue.
+ *
+ * The elements live in a power-of-two ring buffer laid out like the one in
+ * {@code RingBufferDeque}, but the front and back are ever-increasing
+ * {@code long} counters masked into the array. Only the producer thread
+ * writes {@code tail} and only the consumer thread writes {@code head}, so
+ * no locks or compare-and-set are needed: the producer stores the element
+ * and then publishes it with a release store of {@code tail}, and the
+ * consumer reads {@code tail} with an acquire load before it reads the
+ * element. The same pairing on {@code head} hands emptied slots back.
+ *
+ * Each side also keeps a cached copy of the other side's counter and only
+ * rereads the real one when the cache says the queue is full or empty. The
+ * producer fields, the consumer fields and the read-only fields are
+ * separated by padding superclasses, so the two threads never write to the
+ * same cache line.
+ *
+ * The counters are plain fields that the other thread only touches
+ * through the acquire and release modes of {@code VarHandle}, and each
+ * thread reads its own counter without any fence.
+ *
+ * Calling {@code offer} from more than one thread, or {@code poll} and
+ * {@code drain} from more than one thread, is not supported.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class SpscArrayQueue<T> extends SpscConsumerPad<T> {
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(SpscConsumerFields.class, "head",
+                    long.class);
+            TAIL = lookup.findVarHandle(SpscProducerFields.class, "tail",
+                    long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Constructs a new SpscArrayQueue that holds at least
+     * {@code capacity} elements. The capacity is rounded up to the next
+     * power of two.
+     *
+     * @param capacity the minimum capacity of the queue
+     * @throws java.lang.IllegalArgumentException if capacity is not
+     * positive or larger than {@code 2^30}
+     */
+    public SpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Adds the data to the back of the queue if there is room. Must only be
+     * called from the producer thread.
+     *
+     * This method must run in O(1) time.
+     *
+     * @param data the data to add to the queue
+     * @return true if the data was added, false if the queue is full
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public boolean offer(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot add null data to"
+                    + " SpscArrayQueue");
+        }
+        long currentTail = tail;
+        if (currentTail - headCache >= buffer.length) {
+            headCache = (long) HEAD.getAcquire(this);
+            if (currentTail - headCache >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) currentTail & mask] = data;
+        TAIL.setRelease(this, currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Removes the data at the front of the queue. Must only be called from
+     * the consumer thread.
+     *
+     * This method must run in O(1) time.
+     *
+     * @return the data formerly at the front of the queue, or null if the
+     * queue is empty
+     */
+    public T poll() {
+        long currentHead = head;
+        if (currentHead >= tailCache) {
+            tailCache = (long) TAIL.getAcquire(this);
+            if (currentHead >= tailCache) {
+                return null;
+            }
+        }
+        int index = (int) currentHead & mask;
+        T data = buffer[index];
+        buffer[index] = null;
+        HEAD.setRelease(this, currentHead + 1);
+        return data;
+    }
+
+    /**
+     * Removes up to {@code limit} elements from the front of the queue and
+     * passes them to the consumer in order. The slots are handed back to
+     * the producer with a single release store once the batch is done, so
+     * draining a batch costs one publication instead of one per element.
+     * Must only be called from the consumer thread.
+     *
+     * @param consumer the action to run on each removed element
+     * @param limit the largest number of elements to remove
+     * @return the number of elements removed
+     * @throws java.lang.IllegalArgumentException if consumer is null or
+     * limit is negative
+     */
+    public int drain(Consumer<? super T> consumer, int limit) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Cannot drain into a null"
+                    + " consumer.");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Drain limit cannot be"
+                    + " negative.");
+        }
+        long currentHead = head;
+        long available = tailCache - currentHead;
+        if (available < limit) {
+            tailCache = (long) TAIL.getAcquire(this);
+            available = tailCache - currentHead;
+        }
+        int count = (int) Math.min(available, limit);
+        for (int i = 0; i < count; i++) {
+            int index = (int) (currentHead + i) & mask;
+            T data = buffer[index];
+            buffer[index] = null;
+            consumer.accept(data);
+        }
+        HEAD.setRelease(this, currentHead + count);
+        return count;
+    }
+
+    /**
+     * Returns the number of elements in the queue. If the producer or
+     * consumer is running at the same time, the result is only an estimate.
+     *
+     * @return the size of the queue
+     */
+    public int size() {
+        long after = (long) HEAD.getAcquire(this);
+        while (true) {
+            long before = after;
+            long currentTail = (long) TAIL.getAcquire(this);
+            after = (long) HEAD.getAcquire(this);
+            if (before == after) {
+                return (int) (currentTail - after);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the queue is empty. If the producer or consumer is
+     * running at the same time, the result is only an estimate.
+     *
+     * @return true if empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return (long) HEAD.getAcquire(this) == (long) TAIL.getAcquire(this);
+    }
+
+    /**
+     * Returns the number of elements the queue can hold.
+     *
+     * @return the capacity of the queue
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+}
+
+/**
+ * The fields of SpscArrayQueue that are never written after construction.
+ *
+ * @param <T> the type of the elements in the queue
+ */
+abstract class SpscColdFields<T> {
+
+    /**
+     * The largest power of two capacity an array can have.
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    final T[] buffer;
+    final int mask;
+
+    /**
+     * Allocates the ring buffer.
+     *
+     * @param capacity the minimum capacity of the queue
+     * @throws java.lang.IllegalArgumentException if capacity is not
+     * positive or larger than {@code 2^30}
+     */
+    SpscColdFields(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1"
+                    + " and 2^30.");
+        }
+        buffer = (T[]) new Object[powerOfTwoFor(capacity)];
+        mask = buffer.length - 1;
+    }
+
+    /**
+     * Private helper method to round a capacity up to a power of two.
+     *
+     * @param capacity a capacity between 1 and {@code MAX_CAPACITY}
+     * @return the smallest power of two that is at least capacity
+     */
+    private static int powerOfTwoFor(int capacity) {
+        if (capacity == 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
+
+/**
+ * Padding between the read-only fields and the producer fields.
+ *
+ * @param <T> the type of the elements in the queue
+ */
+abstract class SpscProducerPad<T> extends SpscColdFields<T> {
+
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p10, p11, p12, p13, p14, p15;
+
+    /**
+     * Passes the capacity on.
+     *
+     * @param capacity the minimum capacity of the queue
+     */
+    SpscProducerPad(int capacity) {
+        super(capacity);
+    }
+}
+
+/**
+ * The fields written only by the producer thread.
+ *
+ * @param <T> the type of the elements in the queue
+ */
+abstract class SpscProducerFields<T> extends SpscProducerPad<T> {
+
+    long tail;
+    long headCache;
+
+    /**
+     * Passes the capacity on.
+     *
+     * @param capacity the minimum capacity of the queue
+     */
+    SpscProducerFields(int capacity) {
+        super(capacity);
+    }
+}
+
+/**
+ * Padding between the producer fields and the consumer fields.
+ *
+ * @param <T> the type of the elements in the queue
+ */
+abstract class SpscMiddlePad<T> extends SpscProducerFields<T> {
+
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p10, p11, p12, p13, p14, p15;
+
+    /**
+     * Passes the capacity on.
+     *
+     * @param capacity the minimum capacity of the queue
+     */
+    SpscMiddlePad(int capacity) {
+        super(capacity);
+    }
+}
+
+/**
+ * The fields written only by the consumer thread.
+ *
+ * @param <T> the type of the elements in the queue
+ */
+abstract class SpscConsumerFields<T> extends SpscMiddlePad<T> {
+
+    long head;
+    long tailCache;
+
+    /**
+     * Passes the capacity on.
+     *
+     * @param capacity the minimum capacity of the queue
+     */
+    SpscConsumerFields(int capacity) {
+        super(capacity);
+    }
+}
+
+/**
+ * Padding after the consumer fields, so they do not share a cache line
+ * with whatever is allocated next.
+ *
+ * @param <T> the type of the elements in the queue
+ */
+abstract class SpscConsumerPad<T> extends SpscConsumerFields<T> {
+
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p10, p11, p12, p13, p14, p15;
+
+    /**
+     * Passes the capacity on.
+     *
+     * @param capacity the minimum capacity of the queue
+     */
+    SpscConsumerPad(int capacity) {
+        super(capacity);
+    }
+}
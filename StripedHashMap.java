@@ -0,0 +1,605 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of a thread-safe linear probing HashMap split into
+ * independently locked segments.
+ *
+ * The top bits of a key's spread hash choose a segment and the low bits
+ * choose a slot in that segment's power-of-two table. Writers lock only
+ * their segment, and each segment resizes on its own and incrementally:
+ * when a segment's table fills up, a new table is allocated and every
+ * write to that segment moves the next {@code MIGRATION_STEP} slots of the
+ * old table across, so no single write copies the whole table. Slots hold
+ * immutable nodes that are replaced with volatile writes, so {@code get}
+ * and {@code containsKey} never lock: they see either the node before or
+ * after any concurrent write, looking in the old table before the new one
+ * while a segment is migrating.
+ *
+ * {@code size}, {@code keySet} and {@code values} are not atomic across
+ * segments while other threads are writing.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class StripedHashMap<K, V> {
+
+    public static final int INITIAL_CAPACITY = 16;
+    public static final int CONCURRENCY_LEVEL = 16;
+    public static final double MAX_LOAD_FACTOR = 0.67;
+    public static final double MAX_OCCUPIED_LOAD_FACTOR = 0.8;
+    public static final int MIGRATION_STEP = 8;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentShift;
+    private final int segmentCapacity;
+
+    /**
+     * Create a hash map with no entries, {@code CONCURRENCY_LEVEL} segments
+     * and a total initial capacity of {@code INITIAL_CAPACITY}.
+     */
+    public StripedHashMap() {
+        this(INITIAL_CAPACITY, CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Create a hash map with no entries.
+     *
+     * Both arguments are rounded up to the next power of two, and every
+     * segment starts with an equal share of the initial capacity.
+     *
+     * @param initialCapacity total initial capacity of all segments
+     * @param concurrencyLevel the number of independently locked segments
+     * @throws IllegalArgumentException if either argument is not positive
+     */
+    public StripedHashMap(int initialCapacity, int concurrencyLevel) {
+        if (initialCapacity <= 0 || concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Initial capacity and"
+                    + " concurrency level must be positive.");
+        }
+        int segmentCount = PowerOfTwoHashMap.tableSizeFor(concurrencyLevel);
+        segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        segmentCapacity = PowerOfTwoHashMap.tableSizeFor(
+                Math.max(2, (initialCapacity + segmentCount - 1)
+                        / segmentCount));
+        // Arrays of a generic type can only be created raw.
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Segment<K, V>[] newSegments = new Segment[segmentCount];
+        segments = newSegments;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one.
+     *
+     * Locks only the segment the key belongs to.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " key into HashMap.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " value into HashMap.");
+        }
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        return segmentFor(hash).put(key, value, hash);
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * Locks only the segment the key belongs to.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot remove entry with null"
+                    + " key.");
+        }
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        V removedValue = segmentFor(hash).remove(key, hash);
+        if (removedValue == null) {
+            throw new NoSuchElementException("Cannot remove entry which is"
+                    + " not in HashMap");
+        }
+        return removedValue;
+    }
+
+    /**
+     * Gets the value associated with the given key without locking.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot get entry with null"
+                    + " key.");
+        }
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        V value = segmentFor(hash).get(key, hash);
+        if (value == null) {
+            throw new NoSuchElementException("No element with this key in"
+                    + " HashMap");
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether or not the key is in the map, without locking.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("HashMap cannot contain null"
+                    + " keys");
+        }
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        return segmentFor(hash).get(key, hash) != null;
+    }
+
+    /**
+     * Returns a Set of the keys contained in this map, read one segment at a
+     * time.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keyHashSet = new HashSet<>();
+        for (Segment<K, V> segment : segments) {
+            segment.forEachNode(node -> keyHashSet.add(node.key));
+        }
+        return keyHashSet;
+    }
+
+    /**
+     * Returns a List of the values contained in this map, read one segment
+     * at a time.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        ArrayList<V> valueList = new ArrayList<>();
+        for (Segment<K, V> segment : segments) {
+            segment.forEachNode(node -> valueList.add(node.value));
+        }
+        return valueList;
+    }
+
+    /**
+     * Clears every segment and resets it to its initial capacity. Segments
+     * are cleared one at a time.
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear(segmentCapacity);
+        }
+    }
+
+    /**
+     * Returns the number of elements in the map, summed over the segments.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Private helper method to choose the segment for a spread hash from its
+     * top bits.
+     *
+     * @param hash the spread hash of a key
+     * @return the segment responsible for the key
+     */
+    private Segment<K, V> segmentFor(int hash) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        return segments[hash >>> segmentShift];
+    }
+
+    /**
+     * An immutable key-value pair stored in a segment's table.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+
+        /**
+         * Creates a node.
+         *
+         * @param key the key of the node
+         * @param value the value of the node
+         */
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The tables of a segment, published together so that a reader never
+     * sees a new table without the old table it is migrating from.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    private static final class Tables<K, V> {
+        private final AtomicReferenceArray<Node<K, V>> old;
+        private final AtomicReferenceArray<Node<K, V>> current;
+
+        /**
+         * Creates a pair of tables.
+         *
+         * @param old the table being migrated from, or null
+         * @param current the table new entries go into
+         */
+        private Tables(AtomicReferenceArray<Node<K, V>> old,
+                       AtomicReferenceArray<Node<K, V>> current) {
+            this.old = old;
+            this.current = current;
+        }
+    }
+
+    /**
+     * One independently locked linear probing table.
+     *
+     * Removed slots hold the segment's {@code tombstone} node. While the
+     * segment migrates, slots of the old table that have been copied to the
+     * new one hold its {@code moved} node. Both have a null key and, like a
+     * removed entry, do not end a probe. Nothing is ever written to a slot
+     * of the old table other than these markers, so its probe sequences
+     * stay intact until the migration ends.
+     *
+     * A migration is only started when no other migration is running. Each
+     * write moves {@code MIGRATION_STEP} slots, so a migration from a table
+     * of length n ends within n / {@code MIGRATION_STEP} writes and the new
+     * table gains at most that many entries or removed slots meanwhile. A
+     * migration starts with at most {@code MAX_OCCUPIED_LOAD_FACTOR} of n
+     * slots live, into a table of length n or 2n, so the new table always
+     * has room until the migration ends.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    private static final class Segment<K, V> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<K, V> tombstone = new Node<>(null, null);
+        private final Node<K, V> moved = new Node<>(null, null);
+
+        private volatile Tables<K, V> tables;
+        private volatile int size;
+        private int removedCount;
+        private int migrationIndex;
+
+        /**
+         * Creates an empty segment.
+         *
+         * @param capacity the power of two length of the table
+         */
+        private Segment(int capacity) {
+            tables = new Tables<>(null, new AtomicReferenceArray<>(capacity));
+        }
+
+        /**
+         * Looks up a key without locking.
+         *
+         * A reader that started before a migration may find a moved slot
+         * in what it thinks is the current table. It then reads the tables
+         * again and retries.
+         *
+         * @param key the key to search for
+         * @param hash the spread hash of the key
+         * @return the value of the key, or null if it is not in the segment
+         */
+        private V get(K key, int hash) {
+            while (true) {
+                Tables<K, V> tabs = tables;
+                if (tabs.old != null) {
+                    Node<K, V> node = find(tabs.old, key, hash);
+                    if (node != null && node != moved) {
+                        return node.value;
+                    }
+                }
+                Node<K, V> node = find(tabs.current, key, hash);
+                if (node != moved) {
+                    return node == null ? null : node.value;
+                }
+                if (tables == tabs) {
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Adds or replaces a key under the segment lock.
+         *
+         * @param key the key to add
+         * @param value the value to add
+         * @param hash the spread hash of the key
+         * @return the old value of the key, or null if it was not present
+         */
+        private V put(K key, V value, int hash) {
+            lock();
+            try {
+                Tables<K, V> tabs = prepareWrite();
+                if (tabs.old == null) {
+                    int length = tabs.current.length();
+                    if (((double) size + 1) / length > MAX_LOAD_FACTOR) {
+                        tabs = startMigration(length * 2);
+                    } else if (((double) size + removedCount + 1) / length
+                            > MAX_OCCUPIED_LOAD_FACTOR) {
+                        tabs = startMigration(length);
+                    }
+                }
+                if (tabs.old != null) {
+                    int oldIndex = indexOf(tabs.old, key, hash);
+                    if (oldIndex != -1) {
+                        V oldValue = tabs.old.get(oldIndex).value;
+                        insert(tabs.current, new Node<>(key, value), hash);
+                        tabs.old.set(oldIndex, moved);
+                        return oldValue;
+                    }
+                }
+                AtomicReferenceArray<Node<K, V>> tab = tabs.current;
+                int index = indexOf(tab, key, hash);
+                if (index != -1) {
+                    V oldValue = tab.get(index).value;
+                    tab.set(index, new Node<>(key, value));
+                    return oldValue;
+                }
+                insert(tab, new Node<>(key, value), hash);
+                size++;
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Removes a key under the segment lock, leaving a tombstone behind.
+         *
+         * @param key the key to remove
+         * @param hash the spread hash of the key
+         * @return the removed value, or null if the key was not present
+         */
+        private V remove(K key, int hash) {
+            lock();
+            try {
+                Tables<K, V> tabs = prepareWrite();
+                if (tabs.old != null) {
+                    int oldIndex = indexOf(tabs.old, key, hash);
+                    if (oldIndex != -1) {
+                        V oldValue = tabs.old.get(oldIndex).value;
+                        tabs.old.set(oldIndex, tombstone);
+                        size--;
+                        return oldValue;
+                    }
+                }
+                AtomicReferenceArray<Node<K, V>> tab = tabs.current;
+                int index = indexOf(tab, key, hash);
+                if (index == -1) {
+                    return null;
+                }
+                V oldValue = tab.get(index).value;
+                tab.set(index, tombstone);
+                size--;
+                removedCount++;
+                return oldValue;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Empties the segment, abandoning any migration.
+         *
+         * @param capacity the power of two length of the new table
+         */
+        private void clear(int capacity) {
+            lock();
+            try {
+                tables = new Tables<>(null,
+                        new AtomicReferenceArray<>(capacity));
+                size = 0;
+                removedCount = 0;
+                migrationIndex = 0;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Passes every live node to the action, reading the old table
+         * before the new one. Does not lock, so while other threads write,
+         * a node that is being moved may be passed twice.
+         *
+         * @param action the action to run on each live node
+         */
+        private void forEachNode(Consumer<Node<K, V>> action) {
+            Tables<K, V> tabs = tables;
+            if (tabs.old != null) {
+                forEachNode(tabs.old, action);
+            }
+            forEachNode(tabs.current, action);
+        }
+
+        /**
+         * Passes every live node of one table to the action.
+         *
+         * @param tab the table to read
+         * @param action the action to run on each live node
+         */
+        private void forEachNode(AtomicReferenceArray<Node<K, V>> tab,
+                                 Consumer<Node<K, V>> action) {
+            for (int i = 0; i < tab.length(); i++) {
+                Node<K, V> node = tab.get(i);
+                if (node != null && node.key != null) {
+                    action.accept(node);
+                }
+            }
+        }
+
+        /**
+         * Moves the next {@code MIGRATION_STEP} slots of a running
+         * migration and returns the tables to write to. Must be called
+         * while holding the lock.
+         *
+         * @return the current tables after the step
+         */
+        private Tables<K, V> prepareWrite() {
+            Tables<K, V> tabs = tables;
+            if (tabs.old == null) {
+                return tabs;
+            }
+            AtomicReferenceArray<Node<K, V>> old = tabs.old;
+            int end = Math.min(migrationIndex + MIGRATION_STEP, old.length());
+            for (; migrationIndex < end; migrationIndex++) {
+                Node<K, V> node = old.get(migrationIndex);
+                if (node != null && node.key != null) {
+                    insert(tabs.current, node,
+                            PowerOfTwoHashMap.spread(node.key.hashCode()));
+                    old.set(migrationIndex, moved);
+                }
+            }
+            if (migrationIndex == old.length()) {
+                tabs = new Tables<>(null, tabs.current);
+                tables = tabs;
+            }
+            return tabs;
+        }
+
+        /**
+         * Publishes a new empty table to migrate into and moves the first
+         * step. Must be called while holding the lock with no migration
+         * running.
+         *
+         * @param length the power of two length of the new table
+         * @return the current tables after the first step
+         */
+        private Tables<K, V> startMigration(int length) {
+            tables = new Tables<>(tables.current,
+                    new AtomicReferenceArray<>(length));
+            migrationIndex = 0;
+            removedCount = 0;
+            return prepareWrite();
+        }
+
+        /**
+         * Probes a table for a key.
+         *
+         * @param tab the table to search
+         * @param key the key to search for
+         * @param hash the spread hash of the key
+         * @return the node of the key; otherwise {@code moved} if the probe
+         * passed a moved slot, or null if it did not
+         */
+        private Node<K, V> find(AtomicReferenceArray<Node<K, V>> tab, K key,
+                                int hash) {
+            int mask = tab.length() - 1;
+            int index = hash & mask;
+            Node<K, V> result = null;
+            for (int probeCount = 0; probeCount <= mask; probeCount++) {
+                Node<K, V> node = tab.get(index);
+                if (node == null) {
+                    return result;
+                } else if (node == moved) {
+                    result = moved;
+                } else if (node != tombstone && node.key.equals(key)) {
+                    return node;
+                }
+                index = (index + 1) & mask;
+            }
+            return result;
+        }
+
+        /**
+         * Probes a table for the slot of a live key. Must be called while
+         * holding the lock.
+         *
+         * @param tab the table to search
+         * @param key the key to search for
+         * @param hash the spread hash of the key
+         * @return the index of the key, or -1 if it is not in the table
+         */
+        private int indexOf(AtomicReferenceArray<Node<K, V>> tab, K key,
+                            int hash) {
+            int mask = tab.length() - 1;
+            int index = hash & mask;
+            for (int probeCount = 0; probeCount <= mask; probeCount++) {
+                Node<K, V> node = tab.get(index);
+                if (node == null) {
+                    return -1;
+                } else if (node.key != null && node.key.equals(key)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Puts a node whose key is not in the table into the first empty or
+         * removed slot of its probe sequence. Must be called while holding
+         * the lock, on a table that has room.
+         *
+         * @param tab the table to insert into
+         * @param node the node to insert
+         * @param hash the spread hash of the node's key
+         */
+        private void insert(AtomicReferenceArray<Node<K, V>> tab,
+                            Node<K, V> node, int hash) {
+            int mask = tab.length() - 1;
+            int index = hash & mask;
+            while (true) {
+                Node<K, V> probeNode = tab.get(index);
+                if (probeNode == null) {
+                    break;
+                } else if (probeNode == tombstone) {
+                    removedCount--;
+                    break;
+                }
+                index = (index + 1) & mask;
+            }
+            tab.set(index, node);
+        }
+    }
+
+}
@@ -0,0 +1,440 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Implementation of a HashMap with a Swiss table layout.
+ *
+ * Slots are grouped sixteen at a time, and every slot has a control byte:
+ * {@code EMPTY}, {@code DELETED}, or the low seven bits of its key's spread
+ * hash. The control bytes of a group are two {@code long} words, so a
+ * lookup compares the hash tag against all sixteen slots with a few
+ * SIMD-within-a-register operations and only calls {@code equals} on the
+ * slots whose tag matches. The remaining hash bits choose the first group,
+ * and groups are probed in a triangular sequence that visits every group of
+ * the power-of-two table. A lookup stops at the first group that has an
+ * empty slot.
+ *
+ * The table is kept below a load factor of 7/8, counting deleted slots.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class SwissHashMap<K, V> {
+
+    public static final int GROUP_WIDTH = 16;
+    public static final int INITIAL_CAPACITY = 16;
+    public static final double MAX_LOAD_FACTOR = 0.875;
+
+    private static final int EMPTY = 0x80;
+    private static final int DELETED = 0xFE;
+    private static final long LSBS = 0x0101010101010101L;
+    private static final long MSBS = 0x8080808080808080L;
+    private static final long EMPTY_WORD = 0x8080808080808080L;
+
+    private long[] control;
+    private K[] keys;
+    private V[] values;
+    private int size;
+    private int deletedCount;
+
+    /**
+     * Create a hash map with no entries. The backing arrays have an initial
+     * capacity of {@code INITIAL_CAPACITY}.
+     */
+    public SwissHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create a hash map with no entries. The backing arrays have a capacity
+     * of {@code initialCapacity} rounded up to a power of two number of
+     * groups.
+     *
+     * @param initialCapacity initial capacity of the backing arrays
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public SwissHashMap(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be"
+                    + " positive.");
+        }
+        allocate(capacityFor(initialCapacity));
+    }
+
+    /**
+     * Adds the given key-value pair to the map. If an entry in the map
+     * already has this key, replace the entry's value with the new one.
+     *
+     * Before anything else, the table is rehashed if adding the entry would
+     * push live and deleted slots over the max load factor. The table
+     * doubles unless more than half of that load is deleted slots, in which
+     * case it is rehashed at its current capacity.
+     *
+     * @param key key to add into the map
+     * @param value value to add into the map
+     * @throws IllegalArgumentException if key or value is null
+     * @return null if the key was not already in the map. If it was in the
+     * map, return the old value associated with it
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " key into HashMap.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot put an entry with null"
+                    + " value into HashMap.");
+        }
+        if (((double) size + deletedCount + 1) / keys.length
+                > MAX_LOAD_FACTOR) {
+            if (deletedCount > size) {
+                rehash(keys.length);
+            } else {
+                rehash(keys.length * 2);
+            }
+        }
+        int hash = PowerOfTwoHashMap.spread(key.hashCode());
+        int index = findIndex(key, hash);
+        if (index != -1) {
+            V oldValue = values[index];
+            values[index] = value;
+            return oldValue;
+        }
+        index = findInsertSlot(hash);
+        if (controlByte(index) == DELETED) {
+            deletedCount--;
+        }
+        setControlByte(index, hash & 0x7F);
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with a matching key from the map.
+     *
+     * If the slot's group still has an empty slot, no probe sequence has
+     * ever continued past the group, so the slot is marked empty instead of
+     * deleted.
+     *
+     * @param key the key to remove
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key does not exist
+     * @return the value previously associated with the key
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot remove entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key, PowerOfTwoHashMap.spread(key.hashCode()));
+        if (index == -1) {
+            throw new NoSuchElementException("Cannot remove entry which is"
+                    + " not in HashMap");
+        }
+        V removedValue = values[index];
+        keys[index] = null;
+        values[index] = null;
+        int word = (index / GROUP_WIDTH) * 2;
+        if ((matchEmpty(control[word]) | matchEmpty(control[word + 1]))
+                != 0) {
+            setControlByte(index, EMPTY);
+        } else {
+            setControlByte(index, DELETED);
+            deletedCount++;
+        }
+        size--;
+        return removedValue;
+    }
+
+    /**
+     * Gets the value associated with the given key.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @throws java.util.NoSuchElementException if the key is not in the map
+     * @return the value associated with the given key
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cannot get entry with null"
+                    + " key.");
+        }
+        int index = findIndex(key, PowerOfTwoHashMap.spread(key.hashCode()));
+        if (index == -1) {
+            throw new NoSuchElementException("No element with this key in"
+                    + " HashMap");
+        }
+        return values[index];
+    }
+
+    /**
+     * Returns whether or not the key is in the map.
+     *
+     * @param key the key to search for
+     * @throws IllegalArgumentException if key is null
+     * @return whether or not the key is in the map
+     */
+    public boolean containsKey(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("HashMap cannot contain null"
+                    + " keys");
+        }
+        return findIndex(key, PowerOfTwoHashMap.spread(key.hashCode())) != -1;
+    }
+
+    /**
+     * Returns a Set view of the keys contained in this map.
+     *
+     * @return set of keys in this map
+     */
+    public Set<K> keySet() {
+        HashSet<K> keyHashSet = new HashSet<>();
+        for (K key : keys) {
+            if (key != null) {
+                keyHashSet.add(key);
+            }
+        }
+        return keyHashSet;
+    }
+
+    /**
+     * Returns a List view of the values contained in this map, in order of
+     * increasing slot index.
+     *
+     * @return list of values in this map
+     */
+    public List<V> values() {
+        ArrayList<V> valueList = new ArrayList<>(size);
+        for (V value : values) {
+            if (value != null) {
+                valueList.add(value);
+            }
+        }
+        return valueList;
+    }
+
+    /**
+     * Resize the backing arrays to at least {@code length} slots, rounded up
+     * to a power of two number of groups, disregarding the load factor.
+     * Deleted slots are dropped.
+     *
+     * @param length new minimum capacity of the backing arrays
+     * @throws IllegalArgumentException if length is not greater than the
+     * number of items in the hash map
+     */
+    public void resizeBackingTable(int length) {
+        if (length <= size) {
+            throw new IllegalArgumentException("Cannot resize to less than"
+                    + " or equal to HashMap size.");
+        }
+        rehash(capacityFor(length));
+    }
+
+    /**
+     * Clears the table and resets it to {@code INITIAL_CAPACITY}.
+     */
+    public void clear() {
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of slots in the backing arrays.
+     *
+     * @return the capacity of the map
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Private helper method to find the slot holding the given key.
+     *
+     * @param key the key to search for
+     * @param hash the spread hash of the key
+     * @return the index of the key, or -1 if the key is not in the map
+     */
+    private int findIndex(K key, int hash) {
+        long tag = LSBS * (hash & 0x7F);
+        int groupMask = keys.length / GROUP_WIDTH - 1;
+        int group = (hash >>> 7) & groupMask;
+        for (int step = 1; step <= groupMask + 1; step++) {
+            int word = group * 2;
+            long low = control[word];
+            long high = control[word + 1];
+            for (long match = matchTag(low, tag); match != 0;
+                    match &= match - 1) {
+                int index = group * GROUP_WIDTH
+                        + (Long.numberOfTrailingZeros(match) >>> 3);
+                if (keys[index].equals(key)) {
+                    return index;
+                }
+            }
+            for (long match = matchTag(high, tag); match != 0;
+                    match &= match - 1) {
+                int index = group * GROUP_WIDTH + Long.BYTES
+                        + (Long.numberOfTrailingZeros(match) >>> 3);
+                if (keys[index].equals(key)) {
+                    return index;
+                }
+            }
+            if ((matchEmpty(low) | matchEmpty(high)) != 0) {
+                return -1;
+            }
+            group = (group + step) & groupMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Private helper method to find the first empty or deleted slot on the
+     * probe sequence of a hash.
+     *
+     * @param hash the spread hash of the key to insert
+     * @return the index of the slot to insert into
+     */
+    private int findInsertSlot(int hash) {
+        int groupMask = keys.length / GROUP_WIDTH - 1;
+        int group = (hash >>> 7) & groupMask;
+        for (int step = 1; true; step++) {
+            int word = group * 2;
+            long match = matchEmptyOrDeleted(control[word]);
+            if (match != 0) {
+                return group * GROUP_WIDTH
+                        + (Long.numberOfTrailingZeros(match) >>> 3);
+            }
+            match = matchEmptyOrDeleted(control[word + 1]);
+            if (match != 0) {
+                return group * GROUP_WIDTH + Long.BYTES
+                        + (Long.numberOfTrailingZeros(match) >>> 3);
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * Private helper method to move every entry into new backing arrays of
+     * the given capacity.
+     *
+     * @param capacity the power of two capacity of the new arrays
+     */
+    private void rehash(int capacity) {
+        K[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int hash = PowerOfTwoHashMap.spread(oldKeys[i].hashCode());
+                int index = findInsertSlot(hash);
+                setControlByte(index, hash & 0x7F);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Private helper method to replace the backing arrays with empty arrays
+     * of the given capacity.
+     *
+     * @param capacity the power of two capacity of the new arrays
+     */
+    private void allocate(int capacity) {
+        control = new long[capacity / Long.BYTES];
+        Arrays.fill(control, EMPTY_WORD);
+        keys = (K[]) new Object[capacity];
+        values = (V[]) new Object[capacity];
+        deletedCount = 0;
+    }
+
+    /**
+     * Private helper method to read the control byte of a slot.
+     *
+     * @param index the slot to read
+     * @return the control byte as an unsigned value
+     */
+    private int controlByte(int index) {
+        return (int) (control[index >>> 3] >>> ((index & 7) << 3)) & 0xFF;
+    }
+
+    /**
+     * Private helper method to write the control byte of a slot.
+     *
+     * @param index the slot to write
+     * @param value the control byte to store
+     */
+    private void setControlByte(int index, int value) {
+        int shift = (index & 7) << 3;
+        control[index >>> 3] = (control[index >>> 3] & ~(0xFFL << shift))
+                | ((long) value << shift);
+    }
+
+    /**
+     * Returns a mask with the high bit set in every byte of {@code word}
+     * equal to the tag repeated in {@code tag}. It may also flag a full
+     * slot just above a true match, which the caller's {@code equals} check
+     * filters out, but it never flags an empty or deleted slot.
+     *
+     * @param word eight control bytes
+     * @param tag the hash tag repeated in every byte
+     * @return the high bits of the matching bytes
+     */
+    private static long matchTag(long word, long tag) {
+        long x = word ^ tag;
+        return (x - LSBS) & ~x & MSBS;
+    }
+
+    /**
+     * Returns a mask with the high bit set in every {@code EMPTY} byte of
+     * {@code word}. Only {@code EMPTY} has both the high bit and bit 1 of its
+     * complement set.
+     *
+     * @param word eight control bytes
+     * @return the high bits of the empty bytes
+     */
+    private static long matchEmpty(long word) {
+        return word & (~word << 6) & MSBS;
+    }
+
+    /**
+     * Returns a mask with the high bit set in every {@code EMPTY} or
+     * {@code DELETED} byte of {@code word}. These are the bytes with the
+     * high bit set and the low bit clear.
+     *
+     * @param word eight control bytes
+     * @return the high bits of the empty or deleted bytes
+     */
+    private static long matchEmptyOrDeleted(long word) {
+        return word & ~(word << 7) & MSBS;
+    }
+
+    /**
+     * Returns the capacity for a requested number of slots: a power of two
+     * number of groups holding at least that many slots.
+     *
+     * @param length the requested number of slots
+     * @return the capacity to allocate
+     */
+    private static int capacityFor(int length) {
+        return GROUP_WIDTH * PowerOfTwoHashMap.tableSizeFor(
+                (length + GROUP_WIDTH - 1) / GROUP_WIDTH);
+    }
+
+    /**
+     * Returns the number of elements in the map.
+     *
+     * @return number of elements in the map
+     */
+    public int size() {
+        return size;
+    }
+
+}
@@ -0,0 +1,198 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Implementation of a Chase-Lev work-stealing deque.
+ *
+ * One thread owns the deque and pushes and pops at the back with
+ * {@code addLast} and {@code removeLast}, like a stack. Any number of other
+ * threads steal from the front with {@code removeFirst}. The owner touches
+ * only {@code bottom} and the thieves race on {@code top} with a
+ * compare-and-set, so the owner needs a compare-and-set only when it takes
+ * the last element and could be racing a thief for it.
+ *
+ * The elements live in a power-of-two circular array indexed by the
+ * ever-increasing counters. When it fills up, the owner copies the live
+ * elements into an array of double the length and publishes it; thieves
+ * that still hold the old array read the same elements at the same
+ * indices from it, so growing needs no lock.
+ *
+ * Slots popped by the owner are cleared, but a slot a thief stole from
+ * keeps its reference until the owner writes over it, because clearing it
+ * could race with that write.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class WorkStealingDeque<T> {
+
+    /**
+     * The initial capacity of the WorkStealingDeque.
+     */
+    public static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The largest power of two capacity an array can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final VarHandle TOP;
+    private static final VarHandle BOTTOM;
+    private static final VarHandle ARRAY;
+    private static final VarHandle SLOT =
+            MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(WorkStealingDeque.class, "top",
+                    long.class);
+            BOTTOM = lookup.findVarHandle(WorkStealingDeque.class, "bottom",
+                    long.class);
+            ARRAY = lookup.findVarHandle(WorkStealingDeque.class,
+                    "backingArray", Object[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private long top;
+    private long bottom;
+    private Object[] backingArray;
+
+    /**
+     * Constructs a new WorkStealingDeque with an initial capacity of
+     * the {@code INITIAL_CAPACITY} constant above.
+     */
+    public WorkStealingDeque() {
+        backingArray = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the data to the back of the deque, doubling the backing array
+     * first if it is full. Must only be called from the owner thread.
+     *
+     * This method must run in amortized O(1) time.
+     *
+     * @param data the data to add to the deque
+     * @throws java.lang.IllegalArgumentException if data is null
+     */
+    public void addLast(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Cannot add null data to"
+                    + " WorkStealingDeque");
+        }
+        long b = bottom;
+        long t = (long) TOP.getAcquire(this);
+        Object[] array = backingArray;
+        if (b - t >= array.length) {
+            array = grow(array, t, b);
+        }
+        array[(int) b & (array.length - 1)] = data;
+        BOTTOM.setRelease(this, b + 1);
+    }
+
+    /**
+     * Removes the data at the back of the deque. Must only be called from
+     * the owner thread.
+     *
+     * This method must run in O(1) time.
+     *
+     * @return the data formerly at the back of the deque, or null if the
+     * deque is empty or a thief took the last element first
+     */
+    public T removeLast() {
+        long b = bottom - 1;
+        Object[] array = backingArray;
+        BOTTOM.setVolatile(this, b);
+        long t = (long) TOP.getVolatile(this);
+        if (t > b) {
+            BOTTOM.setOpaque(this, b + 1);
+            return null;
+        }
+        int index = (int) b & (array.length - 1);
+        T data = (T) SLOT.getAcquire(array, index);
+        if (t == b) {
+            boolean won = TOP.compareAndSet(this, t, t + 1);
+            BOTTOM.setOpaque(this, b + 1);
+            if (!won) {
+                return null;
+            }
+        }
+        SLOT.setOpaque(array, index, null);
+        return data;
+    }
+
+    /**
+     * Steals the data at the front of the deque. May be called from any
+     * thread.
+     *
+     * This method must run in O(1) time.
+     *
+     * @return the data formerly at the front of the deque, or null if the
+     * deque is empty or another thread took the element first
+     */
+    public T removeFirst() {
+        long t = (long) TOP.getVolatile(this);
+        long b = (long) BOTTOM.getVolatile(this);
+        if (t >= b) {
+            return null;
+        }
+        Object[] array = (Object[]) ARRAY.getAcquire(this);
+        T data = (T) SLOT.getAcquire(array, (int) t & (array.length - 1));
+        if (!TOP.compareAndSet(this, t, t + 1)) {
+            return null;
+        }
+        return data;
+    }
+
+    /**
+     * Returns the number of elements in the deque. If other threads are
+     * using the deque at the same time, the result is only an estimate.
+     *
+     * @return the size of the deque
+     */
+    public int size() {
+        long b = (long) BOTTOM.getAcquire(this);
+        long t = (long) TOP.getAcquire(this);
+        return (int) Math.max(b - t, 0);
+    }
+
+    /**
+     * Returns whether the deque is empty. If other threads are using the
+     * deque at the same time, the result is only an estimate.
+     *
+     * @return true if empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Private helper method to copy the elements from top to bottom into
+     * an array of double the length and publish it to the thieves.
+     *
+     * @param array the full backing array
+     * @param t the top counter read by the owner
+     * @param b the bottom counter
+     * @return the new backing array
+     * @throws java.lang.IllegalStateException if the deque is already at
+     * the largest supported capacity
+     */
+    private Object[] grow(Object[] array, long t, long b) {
+        if (array.length == MAX_CAPACITY) {
+            throw new IllegalStateException("WorkStealingDeque cannot grow"
+                    + " past 2^30 elements.");
+        }
+        Object[] newArray = new Object[array.length * 2];
+        int oldMask = array.length - 1;
+        int newMask = newArray.length - 1;
+        for (long i = t; i < b; i++) {
+            newArray[(int) i & newMask] = array[(int) i & oldMask];
+        }
+        ARRAY.setRelease(this, newArray);
+        return newArray;
+    }
+}
@@ -0,0 +1,266 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A small fixed-size thread pool built on {@code WorkStealingDeque}.
+ *
+ * Every worker thread owns a deque. A task submitted from inside a worker
+ * is pushed onto that worker's own deque, and the worker runs its own tasks
+ * newest first, which keeps recursively split work hot in its cache. Tasks
+ * submitted from other threads go to a shared injection queue. A worker
+ * with nothing of its own to do polls the injection queue and then tries to
+ * steal the oldest task of randomly chosen workers. When it finds nothing,
+ * it joins a queue of idle workers, looks for work once more, and parks
+ * until woken. Every {@code submit} unparks one idle worker, so a new task
+ * starts without waiting for a timeout, and idle workers cost nothing.
+ *
+ * After {@code shutdown}, tasks from outside the pool are rejected, but
+ * tasks already submitted and tasks that running tasks submit still run.
+ * The scheduler counts every task from submission until it finishes, so the
+ * workers exit only once that count is zero, including tasks that have been
+ * stolen but not started yet.
+ *
+ * A task that throws a RuntimeException is reported to the worker's
+ * uncaught exception handler and the worker moves on. An Error ends the
+ * worker thread; the other workers can still steal the tasks left in its
+ * deque.
+ *
+ * @author Carl Henry Roosipuu
+ * @userid croosipuu3
+ * @GTID 903328574
+ * @version 1.0
+ */
+public class WorkStealingScheduler {
+
+    private final Worker[] workers;
+    private final ConcurrentLinkedQueue<Runnable> injectionQueue;
+    private final ConcurrentLinkedQueue<Worker> idleWorkers;
+    private final AtomicLong pendingTasks;
+    private volatile boolean shutdown;
+
+    /**
+     * Constructs a new WorkStealingScheduler and starts its worker threads.
+     *
+     * @param parallelism the number of worker threads
+     * @throws java.lang.IllegalArgumentException if parallelism is not
+     * positive
+     */
+    public WorkStealingScheduler(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be"
+                    + " positive.");
+        }
+        injectionQueue = new ConcurrentLinkedQueue<>();
+        idleWorkers = new ConcurrentLinkedQueue<>();
+        pendingTasks = new AtomicLong();
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Submits a task to run on one of the workers. From a worker thread of
+     * this scheduler, the task goes onto that worker's own deque; from any
+     * other thread, it goes onto the injection queue.
+     *
+     * @param task the task to run
+     * @throws java.lang.IllegalArgumentException if task is null
+     * @throws java.lang.IllegalStateException if the scheduler is shut down
+     * and the task is not submitted from one of its workers. A task that
+     * races with {@code shutdown} is either rejected or run, never dropped.
+     */
+    public void submit(Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Cannot submit a null task.");
+        }
+        Thread current = Thread.currentThread();
+        if (current instanceof Worker && ((Worker) current).owner() == this) {
+            pendingTasks.incrementAndGet();
+            ((Worker) current).deque.addLast(task);
+            signalWork();
+            return;
+        }
+        if (shutdown) {
+            throw new IllegalStateException("Cannot submit a task to a"
+                    + " scheduler that is shut down.");
+        }
+        pendingTasks.incrementAndGet();
+        injectionQueue.add(task);
+        // shutdown may have started after the check above. If the task is
+        // still queued, take it back and reject it; otherwise a worker
+        // already has it and will run it.
+        if (shutdown && injectionQueue.remove(task)) {
+            if (pendingTasks.decrementAndGet() == 0) {
+                wakeAll();
+            }
+            throw new IllegalStateException("Cannot submit a task to a"
+                    + " scheduler that is shut down.");
+        }
+        signalWork();
+    }
+
+    /**
+     * Stops accepting tasks from outside the scheduler. Tasks that were
+     * already submitted still run.
+     */
+    public void shutdown() {
+        shutdown = true;
+        wakeAll();
+    }
+
+    /**
+     * Waits until every worker has exited after a shutdown, or the timeout
+     * runs out.
+     *
+     * @param timeout the longest time to wait
+     * @param unit the unit of the timeout
+     * @return true if every worker exited, false if the timeout ran out
+     * @throws java.lang.InterruptedException if the waiting thread is
+     * interrupted
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Worker worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+            }
+            if (worker.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return the parallelism of the scheduler
+     */
+    public int getParallelism() {
+        return workers.length;
+    }
+
+    /**
+     * Private helper method to unpark one idle worker, if there is one, so
+     * it picks up a task that was just submitted.
+     */
+    private void signalWork() {
+        Worker idle = idleWorkers.poll();
+        if (idle != null) {
+            LockSupport.unpark(idle);
+        }
+    }
+
+    /**
+     * Private helper method to unpark every worker, so parked workers see
+     * that the scheduler is shut down and have no tasks left.
+     */
+    private void wakeAll() {
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Private helper method to find a task for the given worker, looking
+     * at its own deque, then the injection queue, then the other workers'
+     * deques starting from a random one.
+     *
+     * @param self the worker looking for a task
+     * @return a task to run, or null if none was found
+     */
+    private Runnable findTask(Worker self) {
+        Runnable task = self.deque.removeLast();
+        if (task != null) {
+            return task;
+        }
+        task = injectionQueue.poll();
+        if (task != null) {
+            return task;
+        }
+        int start = ThreadLocalRandom.current().nextInt(workers.length);
+        for (int i = 0; i < workers.length; i++) {
+            Worker victim = workers[(start + i) % workers.length];
+            if (victim != self) {
+                task = victim.deque.removeFirst();
+                if (task != null) {
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A worker thread that owns one deque.
+     */
+    private final class Worker extends Thread {
+
+        private final WorkStealingDeque<Runnable> deque;
+
+        /**
+         * Creates a daemon worker with the given index in its name.
+         *
+         * @param index the index of the worker
+         */
+        Worker(int index) {
+            super("work-stealing-worker-" + index);
+            deque = new WorkStealingDeque<>();
+            setDaemon(true);
+        }
+
+        /**
+         * Returns the scheduler this worker belongs to.
+         *
+         * @return the owning scheduler
+         */
+        WorkStealingScheduler owner() {
+            return WorkStealingScheduler.this;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable task = findTask(this);
+                if (task == null) {
+                    // Register as idle before looking once more, so a task
+                    // submitted in between either turns up in that look or
+                    // unparks this worker.
+                    idleWorkers.add(this);
+                    task = findTask(this);
+                    if (task == null) {
+                        if (shutdown && pendingTasks.get() == 0) {
+                            idleWorkers.remove(this);
+                            return;
+                        }
+                        // An interrupt left behind by a task would make park
+                        // return at once, so clear it first.
+                        Thread.interrupted();
+                        LockSupport.park(this);
+                        idleWorkers.remove(this);
+                        continue;
+                    }
+                    idleWorkers.remove(this);
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    getUncaughtExceptionHandler().uncaughtException(this, e);
+                } finally {
+                    if (pendingTasks.decrementAndGet() == 0 && shutdown) {
+                        wakeAll();
+                    }
+                }
+            }
+        }
+    }
+}